@@ -0,0 +1,48 @@
+public enum Algorithm {
+    MINIMAX("minimax") {
+        public Search create(Phase phase, Evaluator evaluator) {
+            return new MiniMaxSearch(phase, evaluator);
+        }
+    },
+    ALPHA_BETA("alphabeta") {
+        public Search create(Phase phase, Evaluator evaluator) {
+            return new AlphaBetaSearch(phase, evaluator);
+        }
+    },
+    PRINCIPAL_VARIATION("pvs") {
+        public Search create(Phase phase, Evaluator evaluator) {
+            return new PrincipalVariationSearch(phase, evaluator);
+        }
+    },
+    YOUNG_BROTHERS("ybwc") {
+        public Search create(Phase phase, Evaluator evaluator) {
+            return new YoungBrothersSearch(phase, evaluator);
+        }
+    },
+    MTDF("mtdf") {
+        public Search create(Phase phase, Evaluator evaluator) {
+            return new MtdfSearch(phase, evaluator);
+        }
+    };
+
+    private final String option_name;
+
+    Algorithm(String option_name) {
+        this.option_name = option_name;
+    }
+
+    public abstract Search create(Phase phase, Evaluator evaluator);
+
+    // the name --search takes
+    public String getOptionName() {
+        return option_name;
+    }
+
+    public static Algorithm forOptionName(String name) {
+        for (Algorithm algorithm : values()) {
+            if (algorithm.option_name.equals(name))
+                return algorithm;
+        }
+        throw new IllegalArgumentException("unknown search " + name);
+    }
+}
@@ -0,0 +1,545 @@
+public class AlphaBetaSearch extends Search {
+
+    // how many nodes pass between clock reads when searching against a time limit
+    private static final int CLOCK_INTERVAL = 1023;
+    // for searches that cannot work without a table, such as lazy SMP, when --hash-mb is not given
+    protected static final int DEFAULT_HASH_MEGABYTES = 64;
+    // in the moving phase every capture takes a piece off, so quiescence ends on its own; this only
+    // bounds the buffers. Placements add a piece for each one taken, so quiescence is game-phase only
+    private static final int MAX_QUIESCENCE_PLY = 16;
+    // late move reductions: after this many moves, quiet moves at nodes with this much depth left
+    // are first searched this many plies shallower
+    private static final int LMR_FULL_MOVES = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_REDUCTION = 1;
+
+    private long time_millis;
+    private long deadline;
+    private boolean aborted;
+    private int completed_depth;
+
+    // triangular principal-variation table indexed by ply, and the line from the last finished iteration
+    private int[][] principal_variation;
+    private int[] principal_variation_length;
+    private int[] previous_variation;
+    private int previous_variation_length;
+    private boolean follow_variation;
+
+    private MoveOrdering ordering;
+    private long cutoff_count;
+    private long first_move_cutoff_count;
+
+    private int[][] quiescence_buffers;
+    private int quiescence_positions_evaluated_count;
+
+    private boolean late_move_reductions;
+    private int futility_margin = -1;
+    private long reduction_count;
+    private long reduction_re_search_count;
+    private long futility_prune_count;
+
+    private Tablebase tablebase;
+
+    // lazy SMP: helpers search the same root on their own threads and only talk through the table
+    private AlphaBetaSearch[] helpers;
+    private volatile boolean stop_requested;
+    private int root_rotation;
+    private int helper_positions_evaluated_count;
+
+    public AlphaBetaSearch(Phase phase, Evaluator evaluator) {
+        super(phase, evaluator);
+    }
+
+    public void configure(Options options) {
+        super.configure(options);
+        if (options.getHashMegabytes() > 0)
+            table = new TranspositionTable(options.getHashMegabytes());
+        time_millis = options.getTimeMillis();
+        if (options.isOrdering())
+            ordering = new MoveOrdering();
+        if (options.isQuiescence())
+            quiescence_buffers = new int[MAX_QUIESCENCE_PLY][Position.MAX_MOVES];
+        late_move_reductions = options.isLateMoveReductions();
+        if (options.getTablebaseDirectory() != null) {
+            try {
+                tablebase = Tablebase.open(options.getTablebaseDirectory());
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
+        if (options.isFutility())
+            futility_margin = options.getFutilityMargin() >= 0 ? options.getFutilityMargin() : evaluator.quietMoveMargin();
+        if (options.getThreads() > 1) {
+            if (table == null)
+                table = new TranspositionTable(DEFAULT_HASH_MEGABYTES);
+            helpers = new AlphaBetaSearch[options.getThreads() - 1];
+            for (int i = 0; i < helpers.length; i++) {
+                AlphaBetaSearch helper = new AlphaBetaSearch(phase, evaluator);
+                helper.table = table;
+                helper.ordering = new MoveOrdering();
+                helper.root_rotation = i / 2 + 1;
+                helper.terminal_detection = terminal_detection;
+                if (quiescence_buffers != null)
+                    helper.quiescence_buffers = new int[MAX_QUIESCENCE_PLY][Position.MAX_MOVES];
+                helper.late_move_reductions = late_move_reductions;
+                helper.futility_margin = futility_margin;
+                helper.tablebase = tablebase;
+                helper.symmetry = symmetry;
+                helper.evaluation_cache = evaluation_cache;
+                helper.incremental_terms = incremental_terms;
+                helpers[i] = helper;
+            }
+        }
+    }
+
+    protected boolean acceptsAlphaBetaOptions() {
+        return true;
+    }
+
+    protected boolean acceptsRepetition(Options options) {
+        return true;
+    }
+
+    protected int searchRoot(Position position, int depth) {
+        cutoff_count = 0;
+        first_move_cutoff_count = 0;
+        quiescence_positions_evaluated_count = 0;
+        reduction_count = 0;
+        reduction_re_search_count = 0;
+        futility_prune_count = 0;
+        if (ordering != null)
+            ordering.newSearch(depth);
+        if (helpers == null)
+            return searchMain(position, depth);
+
+        Thread[] threads = startHelpers(position, depth);
+        try {
+            return searchMain(position, depth);
+        } finally {
+            stopHelpers(threads);
+        }
+    }
+
+    private int searchMain(Position position, int depth) {
+        if (iterates())
+            return iterativeDeepening(position, depth);
+        return alphaBeta(position, depth, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+    }
+
+    protected boolean iterates() {
+        return time_millis > 0;
+    }
+
+    // one iteration of iterative deepening; guess is the previous iteration's score. An iteration that
+    // is cut off by the clock leaves best_moves[depth] at 0 unless its best move is still sound
+    protected int searchIteration(Position position, int depth, int guess) {
+        return alphaBeta(position, depth, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+    }
+
+    // every other helper looks one ply deeper, and pairs of helpers start from different root moves,
+    // so that they fill the table with entries the main thread has not reached yet
+    private Thread[] startHelpers(Position position, int depth) {
+        Thread[] threads = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            AlphaBetaSearch helper = helpers[i];
+            Position copy = position.copy();
+            int helper_depth = depth + (i & 1 ^ 1);
+            helper.stop_requested = false;
+            if (game_history != null)
+                helper.game_history = game_history.copy();
+            threads[i] = new Thread(() -> helper.runHelper(copy, helper_depth), "search-helper-" + (i + 1));
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        return threads;
+    }
+
+    private void runHelper(Position position, int depth) {
+        prepare(depth);
+        cutoff_count = 0;
+        first_move_cutoff_count = 0;
+        ordering.newSearch(depth);
+        iterativeDeepening(position, depth);
+    }
+
+    // the main thread's answer stands; the count includes the helpers' nodes, as they are real work
+    private void stopHelpers(Thread[] threads) {
+        for (AlphaBetaSearch helper : helpers)
+            helper.stop_requested = true;
+        helper_positions_evaluated_count = 0;
+        for (int i = 0; i < threads.length; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            helper_positions_evaluated_count += helpers[i].positions_evaluated_count;
+        }
+        positions_evaluated_count += helper_positions_evaluated_count;
+    }
+
+    // searches depth 1, 2, 3... up to max_depth until the time runs out, each iteration trying the
+    // previous principal variation first; a cut-off iteration still counts if a root move finished,
+    // since the old best move is searched first and is only replaced by one that scores higher
+    private int iterativeDeepening(Position position, int max_depth) {
+        long start = System.nanoTime();
+        deadline = time_millis > 0 ? start + time_millis * 1_000_000 : 0;
+        aborted = false;
+        completed_depth = 0;
+        principal_variation = new int[max_depth + 1][max_depth + 1];
+        principal_variation_length = new int[max_depth + 1];
+        previous_variation = new int[max_depth + 1];
+        previous_variation_length = 0;
+
+        int estimate = evaluate(position);
+        int best_move = 0;
+        for (int depth = 1; depth <= max_depth; depth++) {
+            root_depth = depth;
+            follow_variation = true;
+            best_moves[depth] = 0;
+            int score = searchIteration(position, depth, estimate);
+            if (aborted) {
+                if (best_moves[depth] != 0) {
+                    best_move = best_moves[depth];
+                    estimate = score;
+                }
+                break;
+            }
+
+            best_move = best_moves[depth];
+            estimate = score;
+            completed_depth = depth;
+            previous_variation_length = principal_variation_length[0];
+            System.arraycopy(principal_variation[0], 0, previous_variation, 0, previous_variation_length);
+
+            // a move with no reply at all cannot change with depth, and an iteration rarely takes
+            // less time than every one before it put together
+            if (best_move == 0 || deadline != 0 && System.nanoTime() - start > (deadline - start) / 2)
+                break;
+        }
+
+        best_moves[max_depth] = best_move;
+        principal_variation = null;
+        return estimate;
+    }
+
+    // ply is passed down rather than taken from root_depth - depth, which reductions make wrong; mate
+    // distances, tablebase scores, killer slots and the principal variation all count real plies
+    public int alphaBeta(Position position, int depth, int ply, int alpha, int beta, boolean is_max_player) {
+        positions_evaluated_count++;
+        if ((positions_evaluated_count & CLOCK_INTERVAL) == 0 && root_depth > 1 && outOfTime())
+            aborted = true;
+        if (aborted)
+            return 0;
+
+        if (principal_variation != null)
+            principal_variation_length[ply] = ply;
+        if (terminal_detection) {
+            int terminal = terminalScore(position, is_max_player, ply);
+            if (terminal != 0)
+                return terminal;
+            // mate-distance pruning: nothing below this node can win sooner than WIN - ply
+            // or lose later than -(WIN - ply), so a window beyond either is already decided
+            int quickest_win = WIN - ply;
+            if (quickest_win <= alpha)
+                return quickest_win;
+            if (-quickest_win >= beta)
+                return -quickest_win;
+        }
+        if (isRepetition(position, is_max_player, ply))
+            return DRAW;
+        if (tablebase != null && ply > 0) {
+            int solved = tablebaseScore(position, is_max_player, ply);
+            if (solved != Tablebase.NOT_FOUND)
+                return solved;
+        }
+        if (depth == 0) {
+            if (quiescence_buffers != null)
+                return quiescence(position, ply, alpha, beta, is_max_player, 0);
+            return evaluate(position);
+        }
+
+        // only a result searched to exactly this depth is reused, so every score is the one the
+        // plain search would have found; the root is always searched so that it records its move.
+        // Under lazy SMP the helpers' deeper entries still give the hash move, but never a score, so
+        // the estimate stays the depth-d value
+        long key = 0;
+        int hash_move = 0;
+        int alpha_bound = alpha;
+        int beta_bound = beta;
+        // with symmetry on, entries are kept for the canonical image and their moves mapped in and out
+        int image = 0;
+        if (table != null) {
+            if (symmetry != null) {
+                image = symmetry.canonical(position.getWhite(), position.getBlack());
+                key = Zobrist.key(Zobrist.hash(symmetry.apply(image, position.getWhite()), symmetry.apply(image, position.getBlack())), is_max_player);
+            } else {
+                key = Zobrist.key(position.getHash(), is_max_player);
+            }
+            long entry = table.probe(key);
+            hash_move = image == 0 ? TranspositionTable.move(entry) : symmetry.applyToMove(symmetry.inverse(image), TranspositionTable.move(entry));
+            int entry_depth = TranspositionTable.depth(entry);
+            if (entry != 0 && ply > 0 && entry_depth == depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    best_moves[depth] = hash_move;
+                    follow_variation = false;
+                    return score;
+                }
+            }
+        }
+
+        int[] possible_moves = move_buffers[depth];
+        int move_count = phase.generateMoves(position, is_max_player, possible_moves);
+        if (ply == 0)
+            move_count = removeSymmetricMoves(position, is_max_player, possible_moves, move_count);
+        if (ordering != null)
+            ordering.order(position, is_max_player, possible_moves, move_count, ply, depth, hash_move);
+        if (ply == 0 && root_rotation > 0 && move_count > 1)
+            rotate(possible_moves, move_count, root_rotation % move_count);
+        if (follow_variation)
+            follow_variation = ply < previous_variation_length && promote(possible_moves, move_count, previous_variation[ply]);
+        int best_estimate_value = is_max_player ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int best_move = 0;
+
+        // futility pruning: one ply from the horizon, if even the most a quiet move can gain leaves
+        // the estimate outside the window, the quiet moves are skipped and that most stands as a bound.
+        // A quiet move that blocks every opposing piece under --terminal, or that repeats an earlier
+        // position under --repetition, ends the game and is kept
+        int futility_bound = 0;
+        boolean futile = false;
+        if (futility_margin >= 0 && depth == 1 && ply > 0) {
+            int static_estimate = evaluate(position);
+            futility_bound = is_max_player ? static_estimate + futility_margin : static_estimate - futility_margin;
+            futile = is_max_player ? futility_bound <= alpha : futility_bound >= beta;
+        }
+
+        enterNode(position, is_max_player);
+        for (int i = 0; i < move_count; i++) {
+            int move = possible_moves[i];
+            if (futile && !Moves.closesMill(move) && !endsGame(position, move, is_max_player, ply)) {
+                futility_prune_count++;
+                best_estimate_value = is_max_player ? Math.max(best_estimate_value, futility_bound) : Math.min(best_estimate_value, futility_bound);
+                continue;
+            }
+            position.makeMove(move, is_max_player);
+            int estimate;
+            if (late_move_reductions && i >= LMR_FULL_MOVES && depth >= LMR_MIN_DEPTH && ply > 0 && !Moves.closesMill(move))
+                estimate = searchReduced(position, depth - 1, ply + 1, alpha, beta, !is_max_player, i);
+            else
+                estimate = searchChild(position, depth - 1, ply + 1, alpha, beta, !is_max_player, i);
+            position.unmakeMove(move, is_max_player);
+            if (aborted)
+                break;
+
+            if (is_max_player) {
+                if (estimate > best_estimate_value) {
+                    best_estimate_value = estimate;
+                    best_move = move;
+                    updateVariation(ply, move);
+                }
+                alpha = Math.max(alpha, best_estimate_value);
+            } else {
+                if (estimate < best_estimate_value) {
+                    best_estimate_value = estimate;
+                    best_move = move;
+                    updateVariation(ply, move);
+                }
+                beta = Math.min(beta, best_estimate_value);
+            }
+
+            if (beta <= alpha) {
+                recordCutoff(move, i, ply, depth);
+                break; 
+            }
+        }
+        leaveNode();
+
+        best_moves[depth] = best_move;
+        if (table != null && !aborted) {
+            int bound = best_estimate_value <= alpha_bound ? TranspositionTable.UPPER
+                    : best_estimate_value >= beta_bound ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, depth, bound, scoreToTable(best_estimate_value, ply), image == 0 ? best_move : symmetry.applyToMove(image, best_move));
+        }
+        return best_estimate_value;
+    }
+
+    // beyond the horizon only mill-closing moves are played, until neither side has one; either side
+    // may instead stand pat on the static estimate, since nobody is forced to close a mill. The
+    // horizon node itself was counted by alphaBeta, the positions below it are counted here; ply is the
+    // horizon node's
+    private int quiescence(Position position, int ply, int alpha, int beta, boolean is_max_player, int quiescence_ply) {
+        if (terminal_detection && quiescence_ply > 0) {
+            int terminal = terminalScore(position, is_max_player, ply + quiescence_ply);
+            if (terminal != 0)
+                return terminal;
+        }
+        int stand_pat = evaluate(position);
+        if (quiescence_ply == MAX_QUIESCENCE_PLY)
+            return stand_pat;
+        if (is_max_player) {
+            if (stand_pat >= beta)
+                return stand_pat;
+            alpha = Math.max(alpha, stand_pat);
+        } else {
+            if (stand_pat <= alpha)
+                return stand_pat;
+            beta = Math.min(beta, stand_pat);
+        }
+
+        int[] possible_moves = quiescence_buffers[quiescence_ply];
+        int move_count = phase.generateMoves(position, is_max_player, possible_moves);
+        int best_estimate_value = stand_pat;
+
+        for (int i = 0; i < move_count; i++) {
+            int move = possible_moves[i];
+            if (!Moves.closesMill(move))
+                continue;
+            position.makeMove(move, is_max_player);
+            positions_evaluated_count++;
+            quiescence_positions_evaluated_count++;
+            int estimate = quiescence(position, ply, alpha, beta, !is_max_player, quiescence_ply + 1);
+            position.unmakeMove(move, is_max_player);
+
+            if (is_max_player) {
+                best_estimate_value = Math.max(best_estimate_value, estimate);
+                alpha = Math.max(alpha, best_estimate_value);
+            } else {
+                best_estimate_value = Math.min(best_estimate_value, estimate);
+                beta = Math.min(beta, best_estimate_value);
+            }
+
+            if (beta <= alpha) {
+                break; 
+            }
+        }
+        return best_estimate_value;
+    }
+
+    // whether the move wins or loses outright, or draws by repetition
+    private boolean endsGame(Position position, int move, boolean is_max_player, int ply) {
+        if (!terminal_detection && game_history == null)
+            return false;
+        position.makeMove(move, is_max_player);
+        boolean over = terminal_detection && terminalScore(position, !is_max_player, ply + 1) != 0
+                || game_history != null && game_history.repeats(Zobrist.key(position.getHash(), !is_max_player));
+        position.unmakeMove(move, is_max_player);
+        return over;
+    }
+
+    // the move at index in the parent's list has just been made
+    protected int searchChild(Position position, int depth, int ply, int alpha, int beta, boolean is_max_player, int index) {
+        return alphaBeta(position, depth, ply, alpha, beta, is_max_player);
+    }
+
+    // a solved endgame scores like a detected win or loss, WIN less the plies to the end of the game
+    // counted from the root; a draw there is a draw however long the search would look
+    private int tablebaseScore(Position position, boolean is_max_player, int ply) {
+        int value = tablebase.probe(position.getPieces(is_max_player), position.getPieces(!is_max_player));
+        if (value == Tablebase.NOT_FOUND || value == 0)
+            return value == 0 ? DRAW : value;
+        int score = WIN - (ply + Tablebase.distance(value));
+        return Tablebase.isWin(value) == is_max_player ? score : -score;
+    }
+
+    // a late quiet move is first asked at reduced depth, with a null window, whether it can beat the
+    // parent's bound; only if it can is it searched again at full depth. is_max_player is the child's
+    // side: a max child improves its min parent by scoring below beta, a min child its max parent by
+    // scoring above alpha, as in PrincipalVariationSearch.searchChild
+    private int searchReduced(Position position, int depth, int ply, int alpha, int beta, boolean is_max_player, int index) {
+        reduction_count++;
+        int reduced_depth = depth - LMR_REDUCTION;
+        int estimate = is_max_player
+                ? alphaBeta(position, reduced_depth, ply, beta - 1, beta, true)
+                : alphaBeta(position, reduced_depth, ply, alpha, alpha + 1, false);
+        if (aborted || (is_max_player ? estimate >= beta : estimate <= alpha))
+            return estimate;
+        reduction_re_search_count++;
+        return searchChild(position, depth, ply, alpha, beta, is_max_player, index);
+    }
+
+    protected boolean isAborted() {
+        return aborted;
+    }
+
+    // lets another pass over the same iteration try the previous principal variation first again
+    protected void followVariation() {
+        follow_variation = true;
+    }
+
+    private void recordCutoff(int move, int index, int ply, int depth) {
+        cutoff_count++;
+        if (index == 0)
+            first_move_cutoff_count++;
+        if (ordering != null)
+            ordering.recordCutoff(move, ply, depth);
+    }
+
+    private void updateVariation(int ply, int move) {
+        if (principal_variation == null)
+            return;
+        int[] line = principal_variation[ply];
+        int length = principal_variation_length[ply + 1];
+        line[ply] = move;
+        System.arraycopy(principal_variation[ply + 1], ply + 1, line, ply + 1, length - ply - 1);
+        principal_variation_length[ply] = length;
+    }
+
+    private boolean outOfTime() {
+        return stop_requested || deadline != 0 && System.nanoTime() - deadline > 0;
+    }
+
+    private static void rotate(int[] moves, int count, int distance) {
+        int[] first = java.util.Arrays.copyOf(moves, distance);
+        System.arraycopy(moves, distance, moves, 0, count - distance);
+        System.arraycopy(first, 0, moves, count - distance, distance);
+    }
+
+    // moves the given move to the front, keeping the rest in generation order
+    private static boolean promote(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getCompletedDepth() {
+        return completed_depth;
+    }
+
+    public long getCutoffs() {
+        return cutoff_count;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return first_move_cutoff_count;
+    }
+
+    public void report(java.io.PrintStream out) {
+        super.report(out);
+        if (time_millis > 0)
+            out.println("Iterative deepening: depth " + completed_depth + " completed within " + time_millis + " ms");
+        if (tablebase != null)
+            out.println("Tablebase: " + tablebase.getProbes() + " probes, " + tablebase.getFound() + " in generated classes, "
+                    + tablebase.getDecided() + " won or lost");
+        if (late_move_reductions)
+            out.println("Late move reductions: " + reduction_count + " reduced, " + reduction_re_search_count + " searched again");
+        if (futility_margin >= 0)
+            out.println("Futility pruning: margin " + futility_margin + ", " + futility_prune_count + " moves pruned");
+        if (quiescence_buffers != null)
+            out.println("Quiescence: " + quiescence_positions_evaluated_count + " of the positions evaluated beyond the horizon");
+        if (helpers != null)
+            out.println("Lazy SMP: " + (helpers.length + 1) + " threads, " + helper_positions_evaluated_count
+                    + " of the positions evaluated by helpers");
+        if (ordering != null)
+            out.printf("Move ordering: %d cutoffs, %.1f%% on the first move%n", cutoff_count,
+                    cutoff_count == 0 ? 0.0 : 100.0 * first_move_cutoff_count / cutoff_count);
+    }
+}
@@ -0,0 +1,883 @@
+import java.io.*;
+import java.lang.management.*;
+import java.util.*;
+
+// java Bench alloc <input file> <depth> [runs]
+//     allocation and time of the engine's alpha-beta against the old board-copying search
+// java Bench variants <input file> <depth> [runs]
+//     all twelve program configurations on the same board in one JVM
+// java Bench hash <input file> <depth> [megabytes]
+//     nodes and time of each alpha-beta program with and without the transposition table
+// java Bench ordering <input file> <depth> [megabytes]
+//     first-move cutoff rate and effective branching factor with and without move ordering
+// java Bench pvs <input file> <max depth> [megabytes]
+//     alpha-beta against principal variation search on the game-phase program, depths 5 to max
+// java Bench parallel <input file> <depth> [max threads]
+//     speedup of the minimax programs over 1, 2, 4... threads, splitting one and two plies deep
+// java Bench smp <input file> <depth> [max threads]
+//     time to depth of lazy SMP alpha-beta on the game-phase program over 1, 2, 4... threads
+// java Bench ybwc <input file> <depth> [max threads]
+//     speedup and search overhead of young brothers wait over 1, 2, 4... threads, every alpha-beta program
+// java Bench mtdf <input file> <max depth> [megabytes]
+//     MTD(f) against full-window alpha-beta on every alpha-beta program, depths 1 to max
+// java Bench terminal <input file> <depth>
+//     nodes of the game-phase programs with and without win/loss detection and mate-distance pruning
+// java Bench quiescence <input file> <depth> [plies]
+//     over a game the game-phase programs play from the board, how often depth and depth + 1, with and
+//     without quiescence, choose the move of a plain search at depth + 2, and what each costs; then
+//     checks that the placement-phase programs turn quiescence down
+// java Bench selective <input file> <depth> [openings]
+//     the game-phase program with late move reductions and futility pruning against itself without them,
+//     both colours from the board and from the boards after each of white's first moves; then how deep
+//     the selective search gets in the time the plain one takes for depth. The games are played again
+//     with repetition detection on both sides
+// java Bench repetition <input file> <depth> [plies]
+//     a game of the game-phase programs against each other from the board, with and without
+//     repetition detection over the game so far: repeated positions, result and nodes
+// java Bench tablebase <input file> <depth> <tablebase directory>
+//     nodes, estimate and move of the game-phase programs with win/loss detection, with and without
+//     probing the tablebase
+// java Bench symmetry <input file> <depth>
+//     nodes of every program whose evaluator has symmetries, with and without --symmetry, searched
+//     serially, by the parallel minimax or lazy SMP, and by young brothers wait
+// java Bench incremental <input file> <depth> [runs]
+//     time of the programs on the improved evaluators with full and with incremental evaluation
+// java Bench book <input file> <depth> <book file>
+//     time of each placement-phase program that can use the book, searching and answering from it
+// java Bench tables <input file> <depth> [boards]
+//     time per estimate of the improved evaluators counting over bitboards and looking up the pattern
+//     tables, on random boards with the input board's piece counts, and whether they ever differ
+// java Bench mobility <input file> <depth> [boards]
+//     time per count of black's game-phase moves, generating them and from masks, on random boards with
+//     the input board's piece counts, whether the counts ever differ, and the minimax game programs at depth
+// java Bench evalcache <input file> <depth> [kilobytes]
+//     time, answer and evaluation cache hit rate of every program with and without the cache
+// java Bench memo <input file> <depth> [megabytes]
+//     each minimax program plain and memoized at depth, with unique and tree-equivalent positions, then
+//     memoized alone two plies deeper
+public class Bench {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        String mode = args[0];
+        Board board = Launcher.readBoardFromFile(args[1]);
+        int depth = Integer.parseInt(args[2]);
+
+        if (mode.equals("alloc"))
+            allocation(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 3);
+        else if (mode.equals("variants"))
+            variants(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 3);
+        else if (mode.equals("hash"))
+            hash(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 64);
+        else if (mode.equals("ordering"))
+            ordering(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 64);
+        else if (mode.equals("pvs"))
+            principalVariation(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 64);
+        else if (mode.equals("parallel"))
+            parallel(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors());
+        else if (mode.equals("smp"))
+            lazySmp(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 16);
+        else if (mode.equals("ybwc"))
+            youngBrothers(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 16);
+        else if (mode.equals("mtdf"))
+            mtdf(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 64);
+        else if (mode.equals("terminal"))
+            terminal(board, depth);
+        else if (mode.equals("quiescence"))
+            quiescence(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 20);
+        else if (mode.equals("selective"))
+            selective(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 8);
+        else if (mode.equals("repetition"))
+            repetition(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 100);
+        else if (mode.equals("tablebase"))
+            tablebase(board, depth, args[3]);
+        else if (mode.equals("symmetry"))
+            symmetry(board, depth);
+        else if (mode.equals("incremental"))
+            incremental(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 3);
+        else if (mode.equals("book"))
+            book(board, depth, args[3]);
+        else if (mode.equals("tables"))
+            tables(board, args.length > 3 ? Integer.parseInt(args[3]) : 1000000);
+        else if (mode.equals("mobility"))
+            mobility(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 1000000);
+        else if (mode.equals("evalcache"))
+            evaluationCache(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 256);
+        else if (mode.equals("memo"))
+            memo(board, depth, args.length > 3 ? Integer.parseInt(args[3]) : 64);
+        else
+            throw new IllegalArgumentException("unknown mode " + mode);
+    }
+
+    private static void allocation(Board board, int depth, int runs) {
+        for (int run = 0; run < runs; run++) {
+            long bytes = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            LegacyResult legacy = LegacyAlphaBeta.alphaBeta(board.convertToString().toCharArray(), depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+            report("legacy alphaBeta", legacy.positions_evaluated_count, legacy.estimate, THREADS.getCurrentThreadAllocatedBytes() - bytes, System.nanoTime() - start);
+
+            bytes = THREADS.getCurrentThreadAllocatedBytes();
+            start = System.nanoTime();
+            Move best_move = new AlphaBetaSearch(Phase.GAME, Evaluator.UPDATED).search(board, depth);
+            report("alphaBeta", best_move.getPositionsEvaluated(), best_move.getMinimaxEstimate(), THREADS.getCurrentThreadAllocatedBytes() - bytes, System.nanoTime() - start);
+        }
+    }
+
+    private static void variants(Board board, int depth, int runs) {
+        for (int run = 0; run < runs; run++) {
+            for (Variant variant : Variant.values()) {
+                long bytes = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                Move best_move = variant.play(board, depth);
+                report(variant.name(), best_move.getPositionsEvaluated(), best_move.getMinimaxEstimate(), THREADS.getCurrentThreadAllocatedBytes() - bytes, System.nanoTime() - start);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void hash(Board board, int depth, int megabytes) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.ALPHA_BETA)
+                continue;
+            long start = System.nanoTime();
+            Move plain = variant.play(board, depth);
+            long plain_nanos = System.nanoTime() - start;
+
+            Search search = variant.createSearch(new Options().setHashMegabytes(megabytes));
+            start = System.nanoTime();
+            Move hashed = variant.play(search, board, depth);
+            long hashed_nanos = System.nanoTime() - start;
+
+            boolean same = plain.getBoard().convertToString().equals(hashed.getBoard().convertToString())
+                    && plain.getMinimaxEstimate() == hashed.getMinimaxEstimate();
+            System.out.printf("%-26s nodes %10d -> %10d (%5.1f%%)  %8.1f -> %8.1f ms  %s%n",
+                    variant.name(), plain.getPositionsEvaluated(), hashed.getPositionsEvaluated(),
+                    100.0 * hashed.getPositionsEvaluated() / plain.getPositionsEvaluated(),
+                    plain_nanos / 1e6, hashed_nanos / 1e6, same ? "same move" : "DIFFERENT MOVE");
+        }
+    }
+
+    private static void ordering(Board board, int depth, int megabytes) {
+        Options[] configurations = {
+            new Options(),
+            new Options().setOrdering(true),
+            new Options().setHashMegabytes(megabytes),
+            new Options().setHashMegabytes(megabytes).setOrdering(true),
+        };
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.ALPHA_BETA)
+                continue;
+            for (Options options : configurations) {
+                AlphaBetaSearch search = (AlphaBetaSearch) variant.createSearch(options);
+                long start = System.nanoTime();
+                Move best_move = variant.play(search, board, depth);
+                long nanos = System.nanoTime() - start;
+                System.out.printf("%-26s ordering %-3s hash %-3s estimate %6d  nodes %10d  EBF %6.2f  first-move cutoffs %5.1f%% of %9d  %8.1f ms%n",
+                        variant.name(), options.isOrdering() ? "on" : "off", options.getHashMegabytes() > 0 ? "on" : "off",
+                        best_move.getMinimaxEstimate(), best_move.getPositionsEvaluated(),
+                        Math.pow(best_move.getPositionsEvaluated(), 1.0 / depth),
+                        search.getCutoffs() == 0 ? 0.0 : 100.0 * search.getFirstMoveCutoffs() / search.getCutoffs(),
+                        search.getCutoffs(), nanos / 1e6);
+            }
+        }
+    }
+
+    private static void principalVariation(Board board, int max_depth, int megabytes) {
+        Options[] configurations = {
+            new Options(),
+            new Options().setOrdering(true),
+            new Options().setOrdering(true).setHashMegabytes(megabytes),
+        };
+        for (int depth = Math.min(5, max_depth); depth <= max_depth; depth++) {
+            for (Options options : configurations) {
+                Move[] results = new Move[2];
+                for (Algorithm algorithm : new Algorithm[] {Algorithm.ALPHA_BETA, Algorithm.PRINCIPAL_VARIATION}) {
+                    Search search = Variant.AB_GAME.createSearch(new Options().setOrdering(options.isOrdering())
+                            .setHashMegabytes(options.getHashMegabytes()).setAlgorithm(algorithm));
+                    long start = System.nanoTime();
+                    Move best_move = Variant.AB_GAME.play(search, board, depth);
+                    long nanos = System.nanoTime() - start;
+                    results[algorithm == Algorithm.ALPHA_BETA ? 0 : 1] = best_move;
+                    String extra = search instanceof PrincipalVariationSearch
+                            ? ((PrincipalVariationSearch) search).getReSearches() + " re-searches" : "";
+                    System.out.printf("depth %d  %-9s ordering %-3s hash %-3s estimate %6d  nodes %10d  %9.1f ms  %s%n",
+                            depth, algorithm.getOptionName(), options.isOrdering() ? "on" : "off",
+                            options.getHashMegabytes() > 0 ? "on" : "off", best_move.getMinimaxEstimate(),
+                            best_move.getPositionsEvaluated(), nanos / 1e6, extra);
+                }
+                if (results[0].getMinimaxEstimate() != results[1].getMinimaxEstimate()
+                        || !results[0].getBoard().convertToString().equals(results[1].getBoard().convertToString()))
+                    System.out.println("depth " + depth + "  DIFFERENT RESULT");
+            }
+        }
+    }
+
+    private static void parallel(Board board, int depth, int max_threads) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.MINIMAX)
+                continue;
+            // once to warm up, once to time
+            variant.play(board, depth);
+            long start = System.nanoTime();
+            Move sequential = variant.play(board, depth);
+            long sequential_nanos = System.nanoTime() - start;
+            System.out.printf("%-26s threads  1           estimate %6d  nodes %10d  %9.1f ms%n",
+                    variant.name(), sequential.getMinimaxEstimate(), sequential.getPositionsEvaluated(), sequential_nanos / 1e6);
+
+            for (int threads = 2; threads <= Math.max(2, max_threads); threads *= 2) {
+                for (int split_plies = 1; split_plies <= 2; split_plies++) {
+                    Options options = new Options().setThreads(threads).setSplitPlies(split_plies);
+                    variant.play(variant.createSearch(options), board, depth);
+                    Search search = variant.createSearch(options);
+                    start = System.nanoTime();
+                    Move parallel = variant.play(search, board, depth);
+                    long nanos = System.nanoTime() - start;
+                    boolean same = parallel.getMinimaxEstimate() == sequential.getMinimaxEstimate()
+                            && parallel.getPositionsEvaluated() == sequential.getPositionsEvaluated()
+                            && parallel.getBoard().convertToString().equals(sequential.getBoard().convertToString());
+                    System.out.printf("%-26s threads %2d split %d  estimate %6d  nodes %10d  %9.1f ms  speedup %5.2f  %s%n",
+                            variant.name(), threads, split_plies, parallel.getMinimaxEstimate(), parallel.getPositionsEvaluated(),
+                            nanos / 1e6, (double) sequential_nanos / nanos, same ? "same result" : "DIFFERENT RESULT");
+                }
+            }
+        }
+    }
+
+    private static void lazySmp(Board board, int depth, int max_threads) {
+        long single_nanos = 0;
+        for (int threads = 1; threads <= max_threads; threads *= 2) {
+            Options options = new Options().setOrdering(true).setHashMegabytes(64).setThreads(threads);
+            // once to warm up, once to time
+            Variant.AB_GAME.play(Variant.AB_GAME.createSearch(options), board, depth);
+            Search search = Variant.AB_GAME.createSearch(options);
+            long start = System.nanoTime();
+            Move best_move = Variant.AB_GAME.play(search, board, depth);
+            long nanos = System.nanoTime() - start;
+            if (threads == 1)
+                single_nanos = nanos;
+            System.out.printf("threads %2d  %s  estimate %6d  nodes %10d  %9.1f ms  speedup %5.2f%n",
+                    threads, best_move.getBoard().convertToString(), best_move.getMinimaxEstimate(),
+                    best_move.getPositionsEvaluated(), nanos / 1e6, (double) single_nanos / nanos);
+        }
+    }
+
+    private static void youngBrothers(Board board, int depth, int max_threads) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.ALPHA_BETA)
+                continue;
+            Move plain = variant.play(board, depth);
+            long single_nanos = 0;
+            int single_nodes = 0;
+            for (int threads = 1; threads <= max_threads; threads *= 2) {
+                Options options = new Options().setAlgorithm(Algorithm.YOUNG_BROTHERS).setThreads(threads);
+                variant.play(variant.createSearch(options), board, depth);
+                Search search = variant.createSearch(options);
+                long start = System.nanoTime();
+                Move best_move = variant.play(search, board, depth);
+                long nanos = System.nanoTime() - start;
+                if (threads == 1) {
+                    single_nanos = nanos;
+                    single_nodes = best_move.getPositionsEvaluated();
+                }
+                String check = threads > 1 ? best_move.getMinimaxEstimate() == plain.getMinimaxEstimate() ? "same estimate" : "DIFFERENT ESTIMATE"
+                        : best_move.getPositionsEvaluated() == plain.getPositionsEvaluated()
+                                && best_move.getBoard().convertToString().equals(plain.getBoard().convertToString())
+                                ? "same as alphaBeta" : "DIFFERENT FROM alphaBeta";
+                System.out.printf("%-26s threads %2d  estimate %6d  nodes %10d  %9.1f ms  speedup %5.2f  overhead %6.1f%%  splits %7d  %s%n",
+                        variant.name(), threads, best_move.getMinimaxEstimate(), best_move.getPositionsEvaluated(), nanos / 1e6,
+                        (double) single_nanos / nanos, 100.0 * (best_move.getPositionsEvaluated() - single_nodes) / single_nodes,
+                        ((YoungBrothersSearch) search).getSplitPoints(), check);
+            }
+        }
+    }
+
+    private static void mtdf(Board board, int max_depth, int megabytes) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.ALPHA_BETA)
+                continue;
+            for (int depth = 1; depth <= max_depth; depth++) {
+                Options[] configurations = {
+                    new Options(),
+                    new Options().setHashMegabytes(megabytes).setOrdering(true),
+                    new Options().setHashMegabytes(megabytes).setAlgorithm(Algorithm.MTDF),
+                    new Options().setHashMegabytes(megabytes).setOrdering(true).setAlgorithm(Algorithm.MTDF),
+                };
+                Move full_window = null;
+                for (Options options : configurations) {
+                    Search search = variant.createSearch(options);
+                    long start = System.nanoTime();
+                    Move best_move = variant.play(search, board, depth);
+                    long nanos = System.nanoTime() - start;
+                    if (full_window == null)
+                        full_window = best_move;
+                    String passes = search instanceof MtdfSearch ? ((MtdfSearch) search).getPasses() + " passes" : "";
+                    String check = best_move.getMinimaxEstimate() != full_window.getMinimaxEstimate() ? "DIFFERENT ESTIMATE"
+                            : best_move.getBoard().convertToString().equals(full_window.getBoard().convertToString()) ? "" : "other move, same estimate";
+                    System.out.printf("%-26s depth %d  %-9s ordering %-3s estimate %6d  nodes %10d  %9.1f ms  %-10s %s%n",
+                            variant.name(), depth, search instanceof MtdfSearch ? "mtdf" : "alphabeta",
+                            options.isOrdering() ? "on" : "off", best_move.getMinimaxEstimate(),
+                            best_move.getPositionsEvaluated(), nanos / 1e6, passes, check);
+                }
+            }
+        }
+    }
+
+    private static void terminal(Board board, int depth) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getPhase() != Phase.GAME)
+                continue;
+            Move plain = variant.play(board, depth);
+            Search search = variant.createSearch(new Options().setTerminalDetection(true));
+            long start = System.nanoTime();
+            Move detected = variant.play(search, board, depth);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%-26s nodes %10d -> %10d (%5.1f%%)  estimate %11d -> %7d  %s -> %s  %8.1f ms%n",
+                    variant.name(), plain.getPositionsEvaluated(), detected.getPositionsEvaluated(),
+                    100.0 * detected.getPositionsEvaluated() / plain.getPositionsEvaluated(),
+                    plain.getMinimaxEstimate(), detected.getMinimaxEstimate(),
+                    plain.getBoard().convertToString(), detected.getBoard().convertToString(), nanos / 1e6);
+        }
+    }
+
+    private static void quiescence(Board board, int depth, int plies) {
+        String[] names = {"plain d", "plain d+1", "quiescence d", "quiescence d+1"};
+        int[] agreements = new int[names.length];
+        long[] nodes = new long[names.length];
+        long[] nanos = new long[names.length];
+        long reference_nodes = 0;
+        int positions = 0;
+
+        for (int ply = 0; ply < plies; ply++) {
+            Variant variant = ply % 2 == 0 ? Variant.AB_GAME : Variant.AB_GAME_BLACK;
+            Move reference = variant.play(board, depth + 2);
+            if (reference.getBoard().convertToString().equals(board.convertToString()))
+                break;
+            reference_nodes += reference.getPositionsEvaluated();
+            positions++;
+            for (int i = 0; i < names.length; i++) {
+                Search search = variant.createSearch(new Options().setQuiescence(i >= 2));
+                long start = System.nanoTime();
+                Move best_move = variant.play(search, board, depth + i % 2);
+                nanos[i] += System.nanoTime() - start;
+                nodes[i] += best_move.getPositionsEvaluated();
+                if (best_move.getBoard().convertToString().equals(reference.getBoard().convertToString()))
+                    agreements[i]++;
+            }
+            board = reference.getBoard();
+        }
+
+        System.out.printf("%d positions, plain depth %d reference: %d nodes%n", positions, depth + 2, reference_nodes);
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-15s (depth %d)  agrees %5.1f%%  nodes %12d  %9.1f ms%n", names[i], depth + i % 2,
+                    100.0 * agreements[i] / Math.max(1, positions), nodes[i], nanos[i] / 1e6);
+        }
+        // captures there never run out, as each mill-closing placement also adds a piece
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.ALPHA_BETA || variant.getPhase() != Phase.OPENING)
+                continue;
+            try {
+                variant.createSearch(new Options().setQuiescence(true));
+                System.out.printf("%-26s accepts quiescence%n", variant);
+            } catch (IllegalArgumentException e) {
+                System.out.printf("%-26s %s%n", variant, e.getMessage());
+            }
+        }
+    }
+
+    private static final int SELF_PLAY_PLIES = 60;
+
+    private static void selective(Board board, int depth, int openings) {
+        Options plain = new Options().setOrdering(true).setHashMegabytes(16);
+        Options selective = new Options().setOrdering(true).setHashMegabytes(16).setLateMoveReductions(true).setFutility(true);
+
+        List<Board> starts = new ArrayList<>();
+        starts.add(board);
+        Position position = new Position(board.getWhite(), board.getBlack());
+        int[] moves = new int[Position.MAX_MOVES];
+        int move_count = position.generateMovesGame(true, moves);
+        for (int i = 0; i < move_count && starts.size() <= openings; i++) {
+            position.makeMove(moves[i], true);
+            starts.add(new Board(position.getWhite(), position.getBlack()));
+            position.unmakeMove(moves[i], true);
+        }
+
+        match(starts, depth, selective, plain, "");
+        // futility pruning must not hide a drawing repetition from the losing side
+        match(starts, depth, new Options().setOrdering(true).setHashMegabytes(16).setLateMoveReductions(true).setFutility(true).setRepetition(true),
+                new Options().setOrdering(true).setHashMegabytes(16).setRepetition(true), " with repetition detection");
+
+        long start = System.nanoTime();
+        Move plain_move = Variant.AB_GAME.play(Variant.AB_GAME.createSearch(plain), board, depth);
+        long plain_nanos = System.nanoTime() - start;
+        System.out.printf("plain      depth %2d  nodes %10d  %9.1f ms%n", depth, plain_move.getPositionsEvaluated(), plain_nanos / 1e6);
+        for (int d = depth; ; d++) {
+            start = System.nanoTime();
+            Move selective_move = Variant.AB_GAME.play(Variant.AB_GAME.createSearch(selective), board, d);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("selective  depth %2d  nodes %10d  %9.1f ms%n", d, selective_move.getPositionsEvaluated(), nanos / 1e6);
+            if (nanos > plain_nanos)
+                break;
+        }
+    }
+
+    private static void match(List<Board> starts, int depth, Options selective, Options plain, String label) {
+        int wins = 0, draws = 0, losses = 0;
+        for (Board start : starts) {
+            // from white's point of view, so the selective side's result is the negation when it plays black
+            int as_white = selfPlay(start, depth, selective, plain);
+            int as_black = -selfPlay(start, depth, plain, selective);
+            for (int result : new int[] {as_white, as_black}) {
+                if (result > 0)
+                    wins++;
+                else if (result < 0)
+                    losses++;
+                else
+                    draws++;
+            }
+            System.out.printf("%s  selective as white %+d, as black %+d%n", start.convertToString(), as_white, as_black);
+        }
+        System.out.printf("selective against plain at depth %d%s: +%d =%d -%d%n", depth, label, wins, draws, losses);
+    }
+
+    // +1 if white wins, -1 if black does, otherwise the sign of the piece difference after SELF_PLAY_PLIES
+    private static int selfPlay(Board board, int depth, Options white, Options black) {
+        List<Board> game = new ArrayList<>();
+        for (int ply = 0; ply < SELF_PLAY_PLIES; ply++) {
+            boolean is_white = ply % 2 == 0;
+            if (Bitboard.count(is_white ? board.getWhite() : board.getBlack()) < 3)
+                return is_white ? -1 : 1;
+            Variant variant = is_white ? Variant.AB_GAME : Variant.AB_GAME_BLACK;
+            Options options = is_white ? white : black;
+            Search search = variant.createSearch(options);
+            Move best_move = options.isRepetition()
+                    ? variant.play(search, board, game.toArray(new Board[0]), depth)
+                    : variant.play(search, board, depth);
+            if (best_move.getBoard().convertToString().equals(board.convertToString()))
+                return is_white ? -1 : 1;
+            game.add(board);
+            board = best_move.getBoard();
+        }
+        return Integer.signum(Bitboard.count(board.getWhite()) - Bitboard.count(board.getBlack()));
+    }
+
+    private static void repetition(Board board, int depth, int plies) {
+        for (boolean detection : new boolean[] {false, true}) {
+            Options options = new Options().setOrdering(true).setHashMegabytes(16).setRepetition(detection);
+            List<Board> game = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            Board current = board;
+            int repeated = 0;
+            long nodes = 0;
+            String result = "unfinished";
+            for (int ply = 0; ply < plies; ply++) {
+                boolean is_white = ply % 2 == 0;
+                if (!seen.add(current.convertToString() + is_white))
+                    repeated++;
+                if (Bitboard.count(is_white ? current.getWhite() : current.getBlack()) < 3) {
+                    result = is_white ? "black wins" : "white wins";
+                    break;
+                }
+                Variant variant = is_white ? Variant.AB_GAME : Variant.AB_GAME_BLACK;
+                Search search = variant.createSearch(options);
+                Move best_move = detection
+                        ? variant.play(search, current, game.toArray(new Board[0]), depth)
+                        : variant.play(search, current, depth);
+                nodes += best_move.getPositionsEvaluated();
+                if (best_move.getBoard().convertToString().equals(current.convertToString())) {
+                    result = is_white ? "black wins" : "white wins";
+                    break;
+                }
+                game.add(current);
+                current = best_move.getBoard();
+            }
+            System.out.printf("repetition %-3s  %3d plies  %3d repeated positions  %-10s  nodes %10d  final %s%n",
+                    detection ? "on" : "off", game.size(), repeated, result, nodes, current.convertToString());
+        }
+    }
+
+    private static void tablebase(Board board, int depth, String directory) {
+        for (Variant variant : new Variant[] {Variant.AB_GAME, Variant.AB_GAME_BLACK}) {
+            for (String tablebase : new String[] {null, directory}) {
+                Search search = variant.createSearch(new Options().setTerminalDetection(true).setTablebaseDirectory(tablebase));
+                long start = System.nanoTime();
+                Move best_move = variant.play(search, board, depth);
+                long nanos = System.nanoTime() - start;
+                System.out.printf("%-14s tablebase %-3s  %s  estimate %7d  nodes %10d  %9.1f ms%n", variant.name(),
+                        tablebase != null ? "on" : "off", best_move.getBoard().convertToString(),
+                        best_move.getMinimaxEstimate(), best_move.getPositionsEvaluated(), nanos / 1e6);
+            }
+        }
+    }
+
+    private static void symmetry(Board board, int depth) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getEvaluator().symmetry().size() == 1)
+                continue;
+            // the parallel roots drop the symmetric moves too
+            String[] names = {"", " parallel", " ybwc"};
+            Options[] searches = {new Options(), new Options().setThreads(2), new Options().setAlgorithm(Algorithm.YOUNG_BROTHERS).setThreads(2)};
+            for (int i = 0; i < searches.length; i++) {
+                Move plain = variant.play(variant.createSearch(searches[i]), board, depth);
+                Move symmetric = variant.play(variant.createSearch(searches[i].setSymmetry(true)), board, depth);
+                System.out.printf("%-35s nodes %10d -> %10d (%5.1f%%)  estimate %6d -> %6d  %s -> %s%n", variant.name() + names[i],
+                        plain.getPositionsEvaluated(), symmetric.getPositionsEvaluated(),
+                        100.0 * symmetric.getPositionsEvaluated() / plain.getPositionsEvaluated(),
+                        plain.getMinimaxEstimate(), symmetric.getMinimaxEstimate(),
+                        plain.getBoard().convertToString(), symmetric.getBoard().convertToString());
+            }
+        }
+    }
+
+    private static void incremental(Board board, int depth, int runs) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getEvaluator().symmetry() != Symmetry.POTENTIAL_MILLS)
+                continue;
+            long[] best_nanos = {Long.MAX_VALUE, Long.MAX_VALUE};
+            Move[] best_moves = new Move[2];
+            for (int run = 0; run < runs; run++) {
+                for (int terms = 0; terms < 2; terms++) {
+                    Search search = variant.createSearch(new Options().setIncrementalTerms(terms));
+                    long start = System.nanoTime();
+                    best_moves[terms] = variant.play(search, board, depth);
+                    best_nanos[terms] = Math.min(best_nanos[terms], System.nanoTime() - start);
+                }
+            }
+            System.out.printf("%-26s full %9.1f ms  incremental %9.1f ms (%5.2fx)  nodes %d %s  same answer %b%n",
+                    variant.name(), best_nanos[0] / 1e6, best_nanos[1] / 1e6, (double) best_nanos[0] / best_nanos[1],
+                    best_moves[0].getPositionsEvaluated(), variant.getPhase(),
+                    best_moves[0].getBoard().convertToString().equals(best_moves[1].getBoard().convertToString())
+                            && best_moves[0].getMinimaxEstimate() == best_moves[1].getMinimaxEstimate());
+        }
+    }
+
+    private static void book(Board board, int depth, String file) throws IOException {
+        Evaluator evaluator = OpeningBook.open(file).getEvaluator();
+        int answers = 10000;
+        for (Variant variant : Variant.values()) {
+            if (variant.getPhase() != Phase.OPENING || variant.getEvaluator() != evaluator)
+                continue;
+            long start = System.nanoTime();
+            Move searched = variant.play(board, depth);
+            long search_nanos = System.nanoTime() - start;
+            Search search = variant.createSearch(new Options().setBookFile(file));
+            // a board the book lacks is searched instead, so it is timed once
+            start = System.nanoTime();
+            Move answered = variant.play(search, board, depth);
+            int runs = answered.getPositionsEvaluated() == 0 ? answers : 1;
+            for (int i = 1; i < runs; i++)
+                answered = variant.play(search, board, depth);
+            long book_nanos = (System.nanoTime() - start) / runs;
+            System.out.printf("%-26s search %s %6d  %10.1f ms   book %s %6d  %8.2f us  nodes %d%n", variant.name(),
+                    searched.getBoard().convertToString(), searched.getMinimaxEstimate(), search_nanos / 1e6,
+                    answered.getBoard().convertToString(), answered.getMinimaxEstimate(), book_nanos / 1e3,
+                    answered.getPositionsEvaluated());
+        }
+    }
+
+    private static void tables(Board board, int board_count) {
+        int[] whites = new int[board_count];
+        int[] blacks = new int[board_count];
+        randomBoards(board, whites, blacks);
+        int[][] weights = {{80, 5, 10, 0}, {80, 5, 10, 3}};
+        PatternTables[] tables = {PatternTables.IMPROVED, PatternTables.UPDATED};
+        for (int e = 0; e < tables.length; e++) {
+            long best_counting = Long.MAX_VALUE;
+            long best_tables = Long.MAX_VALUE;
+            long[] sums = new long[2];
+            int differing = 0;
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                sums[0] = 0;
+                for (int b = 0; b < board_count; b++)
+                    sums[0] += countingEstimate(whites[b], blacks[b], weights[e]);
+                best_counting = Math.min(best_counting, System.nanoTime() - start);
+                start = System.nanoTime();
+                sums[1] = 0;
+                for (int b = 0; b < board_count; b++)
+                    sums[1] += tables[e].evaluate(whites[b], blacks[b]);
+                best_tables = Math.min(best_tables, System.nanoTime() - start);
+            }
+            for (int b = 0; b < board_count; b++) {
+                if (countingEstimate(whites[b], blacks[b], weights[e]) != tables[e].evaluate(whites[b], blacks[b]))
+                    differing++;
+            }
+            System.out.printf("%-8s counting %7.1f ns  tables %7.1f ns (%5.2fx)  boards %d  differing %d%n",
+                    e == 0 ? "IMPROVED" : "UPDATED", (double) best_counting / board_count, (double) best_tables / board_count,
+                    (double) best_counting / best_tables, board_count, differing);
+        }
+    }
+
+    private static void mobility(Board board, int depth, int board_count) {
+        int[] whites = new int[board_count];
+        int[] blacks = new int[board_count];
+        randomBoards(board, whites, blacks);
+        int[] moves = new int[Position.MAX_MOVES];
+        long best_generating = Long.MAX_VALUE;
+        long best_masks = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int b = 0; b < board_count; b++)
+                new Position(whites[b], blacks[b]).generateMovesGame(false, moves);
+            best_generating = Math.min(best_generating, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int b = 0; b < board_count; b++)
+                Bitboard.countMovesGame(blacks[b], whites[b]);
+            best_masks = Math.min(best_masks, System.nanoTime() - start);
+        }
+        int differing = 0;
+        for (int b = 0; b < board_count; b++) {
+            if (new Position(whites[b], blacks[b]).generateMovesGame(false, moves) != Bitboard.countMovesGame(blacks[b], whites[b]))
+                differing++;
+        }
+        System.out.printf("black moves  generating %7.1f ns  masks %7.1f ns (%5.2fx)  boards %d  differing %d%n",
+                (double) best_generating / board_count, (double) best_masks / board_count,
+                (double) best_generating / best_masks, board_count, differing);
+        for (Variant variant : Variant.values()) {
+            if (variant.getPhase() != Phase.GAME || variant.getEvaluator() != Evaluator.BASIC_GAME)
+                continue;
+            long start = System.nanoTime();
+            Move best_move = variant.play(board, depth);
+            System.out.printf("%-26s estimate %6d  nodes %10d  %10.1f ms%n", variant.name(), best_move.getMinimaxEstimate(),
+                    best_move.getPositionsEvaluated(), (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    private static void evaluationCache(Board board, int depth, int kilobytes) {
+        for (Variant variant : Variant.values()) {
+            long[] best_nanos = {Long.MAX_VALUE, Long.MAX_VALUE};
+            Move[] best_moves = new Move[2];
+            Search cached = null;
+            for (int run = 0; run < 3; run++) {
+                for (int c = 0; c < 2; c++) {
+                    Search search = variant.createSearch(new Options().setEvaluationCacheKilobytes(c * kilobytes));
+                    long start = System.nanoTime();
+                    best_moves[c] = variant.play(search, board, depth);
+                    best_nanos[c] = Math.min(best_nanos[c], System.nanoTime() - start);
+                    if (c == 1)
+                        cached = search;
+                }
+            }
+            long probes = cached.evaluation_cache.getProbes();
+            System.out.printf("%-26s plain %9.1f ms  cached %9.1f ms (%5.2fx)  hits %9d of %9d (%5.1f%%)  same answer %b%n",
+                    variant.name(), best_nanos[0] / 1e6, best_nanos[1] / 1e6, (double) best_nanos[0] / best_nanos[1],
+                    cached.evaluation_cache.getHits(), probes, probes == 0 ? 0.0 : 100.0 * cached.evaluation_cache.getHits() / probes,
+                    best_moves[0].getBoard().convertToString().equals(best_moves[1].getBoard().convertToString())
+                            && best_moves[0].getMinimaxEstimate() == best_moves[1].getMinimaxEstimate()
+                            && best_moves[0].getPositionsEvaluated() == best_moves[1].getPositionsEvaluated());
+        }
+    }
+
+    private static void memo(Board board, int depth, int megabytes) {
+        for (Variant variant : Variant.values()) {
+            if (variant.getAlgorithm() != Algorithm.MINIMAX)
+                continue;
+            long start = System.nanoTime();
+            Move plain = variant.play(board, depth);
+            long plain_nanos = System.nanoTime() - start;
+            for (int d = depth; d <= depth + 2; d++) {
+                MiniMaxSearch search = (MiniMaxSearch) variant.createSearch(new Options().setMemoMegabytes(megabytes));
+                start = System.nanoTime();
+                Move memoized = variant.play(search, board, d);
+                long memo_nanos = System.nanoTime() - start;
+                String plain_columns = d != depth ? String.format("%35s", "") : String.format("plain %10d %9.1f ms  ",
+                        plain.getPositionsEvaluated(), plain_nanos / 1e6);
+                String same = d != depth ? "" : "  same answer " + (plain.getBoard().convertToString().equals(memoized.getBoard().convertToString())
+                        && plain.getMinimaxEstimate() == memoized.getMinimaxEstimate() && plain.getPositionsEvaluated() == search.getTreeCount());
+                System.out.printf("%-26s depth %2d  %smemo unique %9d tree %12d %9.1f ms  estimate %6d%s%n", variant.name(), d,
+                        plain_columns, memoized.getPositionsEvaluated(), search.getTreeCount(), memo_nanos / 1e6,
+                        memoized.getMinimaxEstimate(), same);
+            }
+        }
+    }
+
+    // fills whites and blacks with random boards of the board's piece counts
+    private static void randomBoards(Board board, int[] whites, int[] blacks) {
+        int white_count = Bitboard.count(board.getWhite());
+        int black_count = Bitboard.count(board.getBlack());
+        Random random = new Random(1);
+        List<Integer> points = new ArrayList<>();
+        for (int p = 0; p < Bitboard.POINTS; p++)
+            points.add(p);
+        for (int b = 0; b < whites.length; b++) {
+            Collections.shuffle(points, random);
+            for (int i = 0; i < white_count + black_count; i++) {
+                if (i < white_count)
+                    whites[b] |= Bitboard.bit(points.get(i));
+                else
+                    blacks[b] |= Bitboard.bit(points.get(i));
+            }
+        }
+    }
+
+    // the estimate as the improved evaluators counted it before the pattern tables
+    private static int countingEstimate(int white, int black, int[] weights) {
+        int empty = Bitboard.empty(white, black);
+        return weights[0] * (Bitboard.count(Bitboard.millPieces(white)) - Bitboard.count(Bitboard.millPieces(black))) +
+               weights[1] * (Bitboard.count(white) - Bitboard.count(black)) +
+               weights[2] * (Bitboard.countPotentialMills(white, empty) - Bitboard.countPotentialMills(black, empty)) +
+               weights[3] * (Bitboard.count(Bitboard.blocked(black, empty)) - Bitboard.count(Bitboard.blocked(white, empty)));
+    }
+
+    static void report(String name, long nodes, int estimate, long bytes, long nanos) {
+        System.out.printf("%-26s estimate %6d  nodes %10d  %10.1f ms  %14d bytes  %8.2f bytes/node%n",
+                name, estimate, nodes, nanos / 1e6, bytes, (double) bytes / nodes);
+    }
+
+    static class LegacyResult {
+        int estimate;
+        int positions_evaluated_count;
+
+        LegacyResult(int estimate, int positions_evaluated_count) {
+            this.estimate = estimate;
+            this.positions_evaluated_count = positions_evaluated_count;
+        }
+    }
+
+    // the game-phase search as it was before the bitboard engine: a String and char[] copy per child
+    static class LegacyAlphaBeta {
+
+        private static final int[][] NEIGHBOURS = {
+            {1, 2, 15}, {0, 3, 8}, {0, 3, 4, 12}, {1, 2, 5, 7}, {2, 5, 9}, {3, 4, 6},
+            {5, 7, 11}, {3, 6, 8, 14}, {1, 7, 17}, {4, 10, 12}, {9, 11, 13}, {6, 10, 14},
+            {2, 9, 13, 15}, {10, 12, 14, 16}, {7, 11, 13, 17}, {0, 12, 16}, {13, 15, 17}, {8, 14, 16}
+        };
+
+        private static final int[][] LINES = {
+            {0, 2, 4}, {1, 3, 5}, {1, 8, 17}, {3, 7, 14}, {5, 6, 11}, {6, 7, 8},
+            {9, 10, 11}, {9, 12, 15}, {10, 13, 16}, {11, 14, 17}, {12, 13, 14}, {15, 16, 17}
+        };
+
+        static LegacyResult alphaBeta(char[] board, int depth, int alpha, int beta, boolean is_max_player) {
+            if (depth == 0) {
+                return new LegacyResult(staticEstimation(board), 1);
+            }
+
+            List<char[]> possible_moves = generateMovesGame(board, is_max_player);
+            int best_estimate_value = is_max_player ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            int position_evaluated_count = 0;
+
+            for (char[] move : possible_moves) {
+                LegacyResult current_move = alphaBeta(move, depth - 1, alpha, beta, !is_max_player);
+                position_evaluated_count += current_move.positions_evaluated_count;
+
+                if (is_max_player) {
+                    best_estimate_value = Math.max(best_estimate_value, current_move.estimate);
+                    alpha = Math.max(alpha, best_estimate_value);
+                } else {
+                    best_estimate_value = Math.min(best_estimate_value, current_move.estimate);
+                    beta = Math.min(beta, best_estimate_value);
+                }
+
+                if (beta <= alpha) {
+                    break;
+                }
+            }
+
+            return new LegacyResult(best_estimate_value, position_evaluated_count + 1);
+        }
+
+        static List<char[]> generateMovesGame(char[] board, boolean is_white_player) {
+            char player = is_white_player ? 'W' : 'B';
+            char opponent = is_white_player ? 'B' : 'W';
+            int player_piece_count = 0;
+            for (char position : board) {
+                if (position == player)
+                    player_piece_count++;
+            }
+
+            List<char[]> moves = new ArrayList<>();
+            for (int i = 0; i < 18; i++) {
+                if (board[i] != player)
+                    continue;
+                int[] targets = player_piece_count == 3 ? allPoints() : NEIGHBOURS[i].clone();
+                for (int p : targets) {
+                    if (board[p] == 'x') {
+                        char[] new_board = new String(board).toCharArray();
+                        new_board[i] = 'x';
+                        new_board[p] = player;
+                        if (closeMill(p, new_board)) {
+                            for (int pos : generateRemove(new_board, opponent)) {
+                                char[] copy_board = new String(new_board).toCharArray();
+                                copy_board[pos] = 'x';
+                                moves.add(copy_board);
+                            }
+                        } else {
+                            moves.add(new_board);
+                        }
+                    }
+                }
+            }
+            return moves;
+        }
+
+        static int[] allPoints() {
+            int[] points = new int[18];
+            for (int i = 0; i < 18; i++)
+                points[i] = i;
+            return points;
+        }
+
+        static boolean closeMill(int position, char[] board) {
+            char chr = board[position];
+            for (int[] line : LINES) {
+                if ((line[0] == position || line[1] == position || line[2] == position)
+                        && board[line[0]] == chr && board[line[1]] == chr && board[line[2]] == chr)
+                    return true;
+            }
+            return false;
+        }
+
+        static List<Integer> generateRemove(char[] board, char opponent) {
+            List<Integer> removable_positions = new ArrayList<>();
+            for (int i = 0; i < 18; i++) {
+                if (board[i] == opponent && !closeMill(i, board))
+                    removable_positions.add(i);
+            }
+            if (removable_positions.isEmpty()) {
+                for (int i = 0; i < 18; i++) {
+                    if (board[i] == opponent)
+                        removable_positions.add(i);
+                }
+            }
+            return removable_positions;
+        }
+
+        static int staticEstimation(char[] board) {
+            int white = 0;
+            int black = 0;
+            for (int i = 0; i < 18; i++) {
+                if (board[i] == 'W')
+                    white |= Bitboard.bit(i);
+                else if (board[i] == 'B')
+                    black |= Bitboard.bit(i);
+            }
+            int empty = Bitboard.empty(white, black);
+
+            int[] mills = new int[2];
+            int[] potential_mills = new int[2];
+            int[] blocked = new int[2];
+            for (int i = 0; i < 18; i++) {
+                if (board[i] == 'x')
+                    continue;
+                int side = board[i] == 'W' ? 0 : 1;
+                if (closeMill(i, board))
+                    mills[side]++;
+                if (isBlocked(i, board))
+                    blocked[side]++;
+                if (Bitboard.hasPotentialMill(i, side == 0 ? white : black, empty))
+                    potential_mills[side]++;
+            }
+            return 80 * (mills[0] - mills[1]) + 10 * (potential_mills[0] - potential_mills[1])
+                    + 5 * (Bitboard.count(white) - Bitboard.count(black)) + 3 * (blocked[1] - blocked[0]);
+        }
+
+        static boolean isBlocked(int position, char[] board) {
+            for (int p : NEIGHBOURS[position].clone()) {
+                if (board[p] == 'x')
+                    return false;
+            }
+            return true;
+        }
+    }
+}
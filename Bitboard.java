@@ -0,0 +1,214 @@
+import java.util.*;
+
+public class Bitboard {
+
+    public static final int POINTS = 18;
+    public static final int ALL = (1 << POINTS) - 1;
+
+    private static final int[][] NEIGHBOURS = {
+        {1, 2, 15}, {0, 3, 8}, {0, 3, 4, 12}, {1, 2, 5, 7}, {2, 5, 9}, {3, 4, 6},
+        {5, 7, 11}, {3, 6, 8, 14}, {1, 7, 17}, {4, 10, 12}, {9, 11, 13}, {6, 10, 14},
+        {2, 9, 13, 15}, {10, 12, 14, 16}, {7, 11, 13, 17}, {0, 12, 16}, {13, 15, 17}, {8, 14, 16}
+    };
+
+    private static final int[][] LINES = {
+        {0, 2, 4}, {1, 3, 5}, {1, 8, 17}, {3, 7, 14}, {5, 6, 11}, {6, 7, 8},
+        {9, 10, 11}, {9, 12, 15}, {10, 13, 16}, {11, 14, 17}, {12, 13, 14}, {15, 16, 17}
+    };
+
+    // never set in a board mask, pads points that lie on fewer than three lines
+    private static final int NO_PAIR = 1 << POINTS;
+
+    public static final int[] ADJACENT = new int[POINTS];
+    public static final int[] MILL_LINES = new int[LINES.length];
+    private static final int[] MILL_PAIRS = new int[POINTS * 3];
+    private static final int[] POTENTIAL_PAIRS = new int[POINTS * 3];
+
+    static {
+        for (int i = 0; i < POINTS; i++) {
+            for (int p : NEIGHBOURS[i])
+                ADJACENT[i] |= bit(p);
+        }
+        Arrays.fill(MILL_PAIRS, NO_PAIR);
+        Arrays.fill(POTENTIAL_PAIRS, NO_PAIR);
+        int[] mill_count = new int[POINTS];
+        int[] potential_count = new int[POINTS];
+        for (int l = 0; l < LINES.length; l++) {
+            for (int p : LINES[l])
+                MILL_LINES[l] |= bit(p);
+            for (int p : LINES[l]) {
+                int pair = MILL_LINES[l] & ~bit(p);
+                MILL_PAIRS[p * 3 + mill_count[p]++] = pair;
+                // the potential-mill heuristic has never looked along 10-13-16 from point 10
+                if (p != 10 || (pair & bit(13)) == 0)
+                    POTENTIAL_PAIRS[p * 3 + potential_count[p]++] = pair;
+            }
+        }
+    }
+
+    public static int parse(String positions, char piece) {
+        int pieces = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (positions.charAt(i) == piece)
+                pieces |= bit(i);
+        }
+        return pieces;
+    }
+
+    public static String format(int white, int black) {
+        char[] positions = new char[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            if ((white & bit(i)) != 0)
+                positions[i] = 'W';
+            else if ((black & bit(i)) != 0)
+                positions[i] = 'B';
+            else
+                positions[i] = 'x';
+        }
+        return new String(positions);
+    }
+
+    public static int bit(int position) {
+        return 1 << position;
+    }
+
+    public static int count(int pieces) {
+        return Integer.bitCount(pieces);
+    }
+
+    public static int empty(int white, int black) {
+        return ALL & ~(white | black);
+    }
+
+    public static int getNeighbours(int position) {
+        return ADJACENT[position];
+    }
+
+    // pieces must contain position; true if it sits on a line of three of them
+    public static boolean closeMill(int position, int pieces) {
+        int i = position * 3;
+        return has(pieces, MILL_PAIRS[i]) || has(pieces, MILL_PAIRS[i + 1]) || has(pieces, MILL_PAIRS[i + 2]);
+    }
+
+    public static int millPieces(int pieces) {
+        int mills = 0;
+        for (int line : MILL_LINES) {
+            if ((pieces & line) == line)
+                mills |= line;
+        }
+        return mills;
+    }
+
+    // the same, looking only at the lines whose bits are set in lines
+    public static int millPieces(int pieces, int lines) {
+        int mills = 0;
+        for (int rest = lines; rest != 0; rest &= rest - 1) {
+            int line = MILL_LINES[Integer.numberOfTrailingZeros(rest)];
+            if ((pieces & line) == line)
+                mills |= line;
+        }
+        return mills;
+    }
+
+    // how many moves Position.generateMovesGame makes for player, without making any: each slide, or
+    // hop when player is down to three pieces, counts once, or once per removable piece if it closes a
+    // mill. Only an empty point with both other points of a line through it held by player can close
+    // one, so the mill moves are counted at those few points and the rest from popcounts
+    public static int countMovesGame(int player, int opponent) {
+        int empty = empty(player, opponent);
+        boolean hopping = count(player) == 3;
+        int moves = 0;
+        if (hopping) {
+            moves = 3 * count(empty);
+        } else {
+            for (int rest = player; rest != 0; rest &= rest - 1)
+                moves += count(ADJACENT[Integer.numberOfTrailingZeros(rest)] & empty);
+        }
+
+        int closing = 0;
+        for (int line : MILL_LINES) {
+            if (count(line & player) == 2)
+                closing |= line & empty;
+        }
+        if (closing == 0)
+            return moves;
+        int mill_moves = 0;
+        for (int rest = closing; rest != 0; rest &= rest - 1) {
+            int t = Integer.numberOfTrailingZeros(rest);
+            int sources = hopping ? player : ADJACENT[t] & player;
+            int full_pairs = 0;
+            int full_pair = 0;
+            for (int i = t * 3; i < t * 3 + 3; i++) {
+                if (has(player, MILL_PAIRS[i])) {
+                    full_pairs++;
+                    full_pair = MILL_PAIRS[i];
+                }
+            }
+            // the lines through t meet only at t, so with two full pairs every piece leaves one intact
+            mill_moves += count(full_pairs > 1 ? sources : sources & ~full_pair);
+        }
+        return moves + (count(generateRemove(opponent)) - 1) * mill_moves;
+    }
+
+    public static int generateRemove(int opponent) {
+        int removable = opponent & ~millPieces(opponent);
+        return removable != 0 ? removable : opponent;
+    }
+
+    public static int blocked(int pieces, int empty) {
+        int blocked = 0;
+        for (int rest = pieces; rest != 0; rest &= rest - 1) {
+            int i = Integer.numberOfTrailingZeros(rest);
+            if ((ADJACENT[i] & empty) == 0)
+                blocked |= bit(i);
+        }
+        return blocked;
+    }
+
+    // every point next to an empty one: the pieces that can slide
+    public static int mobility(int empty) {
+        int reach = 0;
+        for (int rest = empty; rest != 0; rest &= rest - 1)
+            reach |= ADJACENT[Integer.numberOfTrailingZeros(rest)];
+        return reach;
+    }
+
+    public static int countPotentialMills(int pieces, int empty) {
+        int count = 0;
+        for (int rest = pieces; rest != 0; rest &= rest - 1) {
+            if (hasPotentialMill(Integer.numberOfTrailingZeros(rest), pieces, empty))
+                count++;
+        }
+        return count;
+    }
+
+    // the pieces in region that have a potential mill
+    public static int potentialMillPieces(int pieces, int empty, int region) {
+        int potential = 0;
+        for (int rest = pieces & region; rest != 0; rest &= rest - 1) {
+            int i = Integer.numberOfTrailingZeros(rest);
+            if (hasPotentialMill(i, pieces, empty))
+                potential |= bit(i);
+        }
+        return potential;
+    }
+
+    public static boolean hasPotentialMill(int position, int pieces, int empty) {
+        int i = position * 3;
+        return half(pieces, empty, POTENTIAL_PAIRS[i]) || half(pieces, empty, POTENTIAL_PAIRS[i + 1]) || half(pieces, empty, POTENTIAL_PAIRS[i + 2]);
+    }
+
+    // whether the potential-mill heuristic looks along pair, two other points of a line, from position
+    public static boolean isPotentialPair(int position, int pair) {
+        int i = position * 3;
+        return POTENTIAL_PAIRS[i] == pair || POTENTIAL_PAIRS[i + 1] == pair || POTENTIAL_PAIRS[i + 2] == pair;
+    }
+
+    private static boolean has(int pieces, int pair) {
+        return (pieces & pair) == pair;
+    }
+
+    private static boolean half(int pieces, int empty, int pair) {
+        return (pieces & pair) != 0 && (empty & pair) != 0;
+    }
+}
@@ -0,0 +1,35 @@
+public class Board {
+    private final int white;
+    private final int black;
+
+    public Board(String positions) {
+        this.white = Bitboard.parse(positions, 'W');
+        this.black = Bitboard.parse(positions, 'B');
+    }
+
+    public Board(int white, int black) {
+        this.white = white;
+        this.black = black;
+    }
+
+    public int getWhite() {
+        return white;
+    }
+
+    public int getBlack() {
+        return black;
+    }
+
+    public Board swap() {
+        return new Board(black, white);
+    }
+
+    public String convertToString() {
+        return Bitboard.format(white, black);
+    }
+
+    @Override
+    public String toString() {
+        return convertToString();
+    }
+}
@@ -0,0 +1,41 @@
+// what the fixed-size tables keyed by a 64-bit hash share: the slot count, the slot a key maps to and
+// the probe, hit and store counters. Each slot holds one entry and a new one for the same slot
+// replaces it or is dropped, as the table decides. The counters are plain fields and may lose
+// increments when several threads use a table
+public abstract class DirectMappedTable {
+
+    private final int index_mask;
+
+    protected long probe_count;
+    protected long hit_count;
+    protected long store_count;
+
+    // the slot count is the largest power of two that fits in the given size, at least one slot
+    protected DirectMappedTable(String name, long bytes, int bytes_per_slot) {
+        if (bytes <= 0)
+            throw new IllegalArgumentException(name + " size must be positive");
+        long slots = Long.highestOneBit(Math.max(bytes / bytes_per_slot, 1));
+        index_mask = (int) Math.min(slots, 1 << 30) - 1;
+    }
+
+    // the low bits of the key
+    protected final int slot(long key) {
+        return (int) key & index_mask;
+    }
+
+    public final int size() {
+        return index_mask + 1;
+    }
+
+    public long getProbes() {
+        return probe_count;
+    }
+
+    public long getHits() {
+        return hit_count;
+    }
+
+    public long getStores() {
+        return store_count;
+    }
+}
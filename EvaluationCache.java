@@ -0,0 +1,45 @@
+// fixed-size, direct-mapped cache of static estimates keyed by Position.getHash; an estimate depends
+// on the pieces only, not on the side to move, so the same leaf reached by another move order or at
+// another ply hits. It is kept apart from the transposition table, which stores search results by
+// depth and bound, and one cache belongs to one evaluator.
+// Each slot is a packed entry, the estimate in the high half and a set low bit, plus the hash XORed
+// with that entry: threads share it without locks as they share the transposition table, a slot torn
+// by a concurrent store reading as a miss
+public class EvaluationCache extends DirectMappedTable {
+
+    private static final int BYTES_PER_SLOT = 16;
+    private static final long FILLED = 1;
+
+    private final long[] checks;
+    private final long[] entries;
+
+    public EvaluationCache(int kilobytes) {
+        super("evaluation cache", (long) kilobytes * 1024, BYTES_PER_SLOT);
+        checks = new long[size()];
+        entries = new long[size()];
+    }
+
+    // the packed entry for hash, or 0 if the slot holds another board
+    public long probe(long hash) {
+        probe_count++;
+        int i = slot(hash);
+        long entry = entries[i];
+        if (entry == 0 || (checks[i] ^ entry) != hash)
+            return 0;
+        hit_count++;
+        return entry;
+    }
+
+    // always replaces: every estimate costs the same to recompute
+    public void store(long hash, int estimate) {
+        store_count++;
+        int i = slot(hash);
+        long entry = (long) estimate << 32 | FILLED;
+        entries[i] = entry;
+        checks[i] = hash ^ entry;
+    }
+
+    public static int estimate(long entry) {
+        return (int) (entry >> 32);
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.*;
+
+// the board features the improved evaluators weigh, kept per colour as masks of the pieces that have
+// them: pieces standing in a mill, pieces with a potential mill and pieces with no empty neighbour.
+// A move flips at most three points, and a piece's features only depend on the points sharing a line
+// with it or next to it, so make recomputes the masks around the flipped points alone and unmake
+// restores the masks make saved. When checked, every make also recounts the whole board and throws
+// on a difference
+public class EvaluationTerms {
+
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+    private static final int MASKS = 6;
+
+    // the point and every point sharing a line with it; the point and its neighbours;
+    // the lines through any point of the first
+    private static final int[] LINE_REACH = new int[Bitboard.POINTS];
+    private static final int[] NEIGHBOUR_REACH = new int[Bitboard.POINTS];
+    private static final int[] NEAR_LINES = new int[Bitboard.POINTS];
+
+    static {
+        for (int p = 0; p < Bitboard.POINTS; p++) {
+            LINE_REACH[p] = Bitboard.bit(p);
+            for (int line : Bitboard.MILL_LINES) {
+                if ((line & Bitboard.bit(p)) != 0)
+                    LINE_REACH[p] |= line;
+            }
+            NEIGHBOUR_REACH[p] = Bitboard.bit(p) | Bitboard.ADJACENT[p];
+            for (int l = 0; l < Bitboard.MILL_LINES.length; l++) {
+                if ((Bitboard.MILL_LINES[l] & LINE_REACH[p]) != 0)
+                    NEAR_LINES[p] |= 1 << l;
+            }
+        }
+    }
+
+    private final boolean checked;
+    private final int[] mill_pieces = new int[2];
+    private final int[] potential_mills = new int[2];
+    private final int[] blocked = new int[2];
+    private int[] saved = new int[MASKS * 16];
+    private int saved_length;
+
+    public EvaluationTerms(int white, int black, boolean checked) {
+        this.checked = checked;
+        recompute(white, black, mill_pieces, potential_mills, blocked);
+    }
+
+    public EvaluationTerms copy(int white, int black) {
+        return new EvaluationTerms(white, black, checked);
+    }
+
+    private static void recompute(int white, int black, int[] mill_pieces, int[] potential_mills, int[] blocked) {
+        int empty = Bitboard.empty(white, black);
+        mill_pieces[WHITE] = Bitboard.millPieces(white);
+        mill_pieces[BLACK] = Bitboard.millPieces(black);
+        potential_mills[WHITE] = Bitboard.potentialMillPieces(white, empty, Bitboard.ALL);
+        potential_mills[BLACK] = Bitboard.potentialMillPieces(black, empty, Bitboard.ALL);
+        blocked[WHITE] = Bitboard.blocked(white, empty);
+        blocked[BLACK] = Bitboard.blocked(black, empty);
+    }
+
+    public void makeMove(int old_white, int old_black, int white, int black) {
+        if (saved_length == saved.length)
+            saved = Arrays.copyOf(saved, saved.length * 2);
+        saved[saved_length++] = mill_pieces[WHITE];
+        saved[saved_length++] = mill_pieces[BLACK];
+        saved[saved_length++] = potential_mills[WHITE];
+        saved[saved_length++] = potential_mills[BLACK];
+        saved[saved_length++] = blocked[WHITE];
+        saved[saved_length++] = blocked[BLACK];
+
+        int line_region = 0;
+        int neighbour_region = 0;
+        int lines = 0;
+        for (int changed = (old_white ^ white) | (old_black ^ black); changed != 0; changed &= changed - 1) {
+            int p = Integer.numberOfTrailingZeros(changed);
+            line_region |= LINE_REACH[p];
+            neighbour_region |= NEIGHBOUR_REACH[p];
+            lines |= NEAR_LINES[p];
+        }
+        int empty = Bitboard.empty(white, black);
+        update(WHITE, white, empty, line_region, neighbour_region, lines);
+        update(BLACK, black, empty, line_region, neighbour_region, lines);
+
+        if (checked)
+            check(white, black);
+    }
+
+    private void update(int colour, int pieces, int empty, int line_region, int neighbour_region, int lines) {
+        mill_pieces[colour] = mill_pieces[colour] & ~line_region | Bitboard.millPieces(pieces, lines) & line_region;
+        potential_mills[colour] = potential_mills[colour] & ~line_region | Bitboard.potentialMillPieces(pieces, empty, line_region);
+        blocked[colour] = blocked[colour] & ~neighbour_region | Bitboard.blocked(pieces & neighbour_region, empty);
+    }
+
+    public void unmakeMove() {
+        blocked[BLACK] = saved[--saved_length];
+        blocked[WHITE] = saved[--saved_length];
+        potential_mills[BLACK] = saved[--saved_length];
+        potential_mills[WHITE] = saved[--saved_length];
+        mill_pieces[BLACK] = saved[--saved_length];
+        mill_pieces[WHITE] = saved[--saved_length];
+    }
+
+    private void check(int white, int black) {
+        int[] full_mill_pieces = new int[2];
+        int[] full_potential_mills = new int[2];
+        int[] full_blocked = new int[2];
+        recompute(white, black, full_mill_pieces, full_potential_mills, full_blocked);
+        if (!Arrays.equals(mill_pieces, full_mill_pieces) || !Arrays.equals(potential_mills, full_potential_mills)
+                || !Arrays.equals(blocked, full_blocked))
+            throw new IllegalStateException("incremental terms of " + Bitboard.format(white, black) + " differ from a full recount");
+    }
+
+    public int getMillPieces(boolean is_white) {
+        return Bitboard.count(mill_pieces[is_white ? WHITE : BLACK]);
+    }
+
+    public int getPotentialMills(boolean is_white) {
+        return Bitboard.count(potential_mills[is_white ? WHITE : BLACK]);
+    }
+
+    public int getBlocked(boolean is_white) {
+        return Bitboard.count(blocked[is_white ? WHITE : BLACK]);
+    }
+}
@@ -0,0 +1,87 @@
+// static estimations, always from white's point of view
+public enum Evaluator {
+    BASIC_OPENING {
+        public int evaluate(Position position) {
+            return Bitboard.count(position.getWhite()) - Bitboard.count(position.getBlack());
+        }
+    },
+    BASIC_GAME {
+        public int evaluate(Position position) {
+            int white_pieces_count = Bitboard.count(position.getWhite());
+            int black_pieces_count = Bitboard.count(position.getBlack());
+            int black_moves = position.countMovesGame(false);
+
+            if (black_pieces_count <= 2) 
+                return 10000;
+            else if (white_pieces_count <= 2) 
+                return -10000;
+            else if (black_moves == 0) 
+                return 10000;
+            else 
+                return 1000 * (white_pieces_count - black_pieces_count) - black_moves;
+        }
+    },
+    IMPROVED {
+        public int evaluate(Position position) {
+            return PatternTables.IMPROVED.evaluate(position.getWhite(), position.getBlack());
+        }
+
+        public int evaluate(Position position, EvaluationTerms terms) {
+            return 80 * (terms.getMillPieces(true) - terms.getMillPieces(false)) + 
+                   5 * (Bitboard.count(position.getWhite()) - Bitboard.count(position.getBlack())) + 
+                   10 * (terms.getPotentialMills(true) - terms.getPotentialMills(false));
+        }
+
+        public int quietMoveMargin() {
+            return 10 * QUIET_MOVE_LINE_PIECES;
+        }
+
+        public Symmetry symmetry() {
+            return Symmetry.POTENTIAL_MILLS;
+        }
+    },
+    UPDATED {
+        public int evaluate(Position position) {
+            return PatternTables.UPDATED.evaluate(position.getWhite(), position.getBlack());
+        }
+
+        public int evaluate(Position position, EvaluationTerms terms) {
+            return 80 * (terms.getMillPieces(true) - terms.getMillPieces(false)) + 
+                   10 * (terms.getPotentialMills(true) - terms.getPotentialMills(false)) + 
+                   5 * (Bitboard.count(position.getWhite()) - Bitboard.count(position.getBlack())) + 
+                   3 * (terms.getBlocked(false) - terms.getBlocked(true));
+        }
+
+        public int quietMoveMargin() {
+            return 10 * QUIET_MOVE_LINE_PIECES + 3 * QUIET_MOVE_NEIGHBOURS;
+        }
+
+        public Symmetry symmetry() {
+            return Symmetry.POTENTIAL_MILLS;
+        }
+    };
+
+    // a moving-phase move that closes no mill changes no piece count and adds no mill pieces; it only
+    // flips the potential-mill state of the moved piece and the pieces sharing a line with its two
+    // points, and the blocked state of the moved piece and the neighbours of its two points
+    private static final int QUIET_MOVE_LINE_PIECES = 1 + 2 * 4;
+    private static final int QUIET_MOVE_NEIGHBOURS = 1 + 2 * 4;
+
+    public abstract int evaluate(Position position);
+
+    // the same estimate from the features position keeps through make and unmake; only searches run
+    // with --incremental come here, so evaluate stays free of the check
+    public int evaluate(Position position, EvaluationTerms terms) {
+        return evaluate(position);
+    }
+
+    // the most one quiet moving-phase move can change the estimate by, or -1 if there is no useful bound
+    public int quietMoveMargin() {
+        return -1;
+    }
+
+    // the symmetries that leave every estimate unchanged; counts of pieces and moves depend on the rules only
+    public Symmetry symmetry() {
+        return Symmetry.RULES;
+    }
+}
@@ -0,0 +1,64 @@
+import java.util.*;
+
+// the Zobrist.key of every position of the game before the root, oldest first, followed by the
+// positions on the line being searched. Keys include the side to move, so a key that is already
+// on the stack is the same position with the same player to move: a repetition
+public class GameHistory {
+
+    private long[] keys;
+    private int game_length;
+    private int length;
+
+    public GameHistory() {
+        this(new long[0]);
+    }
+
+    private GameHistory(long[] game_keys) {
+        keys = Arrays.copyOf(game_keys, game_keys.length + 32);
+        game_length = game_keys.length;
+        length = game_length;
+    }
+
+    // the boards that led to the root, oldest first; the last one is the opponent's turn, the one
+    // before it the root player's, and so on back
+    public static GameHistory of(Board[] boards) {
+        long[] game_keys = new long[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            boolean is_white_player = (boards.length - i) % 2 == 0;
+            game_keys[i] = Zobrist.key(Zobrist.hash(boards[i].getWhite(), boards[i].getBlack()), is_white_player);
+        }
+        return new GameHistory(game_keys);
+    }
+
+    // drops the line of the previous search, keeping the game
+    public void reset() {
+        length = game_length;
+    }
+
+    public void push(long key) {
+        if (length == keys.length)
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        keys[length++] = key;
+    }
+
+    public void pop() {
+        length--;
+    }
+
+    public boolean repeats(long key) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (keys[i] == key)
+                return true;
+        }
+        return false;
+    }
+
+    // a stack of its own over the same game, for another thread
+    public GameHistory copy() {
+        return new GameHistory(Arrays.copyOf(keys, game_length));
+    }
+
+    public int getGameLength() {
+        return game_length;
+    }
+}
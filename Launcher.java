@@ -0,0 +1,55 @@
+import java.io.*;
+import java.util.*;
+
+public class Launcher {
+
+    // usage: <program> <input file> <output file> <depth> [--hash-mb <megabytes>] [--time-ms <milliseconds>]
+    //                  [--ordering on|off] [--search minimax|alphabeta|pvs|ybwc|mtdf]
+    //                  [--threads <count>|all] [--split-plies <plies>] [--terminal on|off]
+    //                  [--quiescence on|off] [--lmr on|off] [--futility on|off] [--futility-margin <score>]
+    //                  [--repetition on|off] [--history <file of earlier boards, oldest first>]
+    //                  [--tablebase <directory>] [--book <file>] [--symmetry on|off]
+    //                  [--incremental on|off|check] [--eval-cache-kb <kilobytes>] [--memo-mb <megabytes>]
+    public static void run(String[] args, Variant variant) throws Exception {
+        String inputFile = args[0];
+        String outputFile = args[1];
+        int depth = Integer.parseInt(args[2]);
+        Options options = Options.parse(args, 3);
+
+        Board initial_board = readBoardFromFile(inputFile);
+        Search search = variant.createSearch(options);
+        Move best_move = options.getHistoryFile() != null
+                ? variant.play(search, initial_board, readBoardsFromFile(options.getHistoryFile()), depth)
+                : variant.play(search, initial_board, depth);
+
+        writeBoardToFile(outputFile, best_move.getBoard());
+        System.out.println("Board Position: " + best_move.getBoard().convertToString());
+        System.out.println("Positions evaluated by static estimation: " + best_move.getPositionsEvaluated());
+        System.out.println("MINIMAX estimate: " + best_move.getMinimaxEstimate());
+        search.report(System.out);
+    }
+
+    public static Board readBoardFromFile(String file) throws Exception {
+        BufferedReader br = new BufferedReader(new FileReader(file));
+        String line = br.readLine();
+        br.close();
+        return new Board(line);
+    }
+
+    public static Board[] readBoardsFromFile(String file) throws Exception {
+        List<Board> boards = new ArrayList<>();
+        BufferedReader br = new BufferedReader(new FileReader(file));
+        for (String line = br.readLine(); line != null; line = br.readLine()) {
+            if (!line.isBlank())
+                boards.add(new Board(line.trim()));
+        }
+        br.close();
+        return boards.toArray(new Board[0]);
+    }
+
+    public static void writeBoardToFile(String file, Board board) throws Exception {
+        BufferedWriter bw = new BufferedWriter(new FileWriter(file));
+        bw.write(board.convertToString());
+        bw.close();
+    }
+}
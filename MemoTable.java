@@ -0,0 +1,58 @@
+// fixed-size, direct-mapped table of exact minimax values for the memoized minimax, keyed by
+// Zobrist.key and the remaining depth. Without pruning a subtree's value depends only on its
+// position, side to move and depth, so a transposed subtree can be answered whole; the table also
+// keeps how many positions the plain tree search would have evaluated in it, so that count can still
+// be reported. It is filled and read by one thread only
+public class MemoTable extends DirectMappedTable {
+
+    private static final int BYTES_PER_SLOT = 24;
+    private static final long DEPTH_MASK = 0xff;
+
+    private final long[] keys;
+    // value in the high half, depth + 1 in the low byte; 0 for an empty slot
+    private final long[] entries;
+    private final long[] tree_counts;
+
+    public MemoTable(int megabytes) {
+        super("memo", (long) megabytes * 1024 * 1024, BYTES_PER_SLOT);
+        keys = new long[size()];
+        entries = new long[size()];
+        tree_counts = new long[size()];
+    }
+
+    // win scores count plies from the root, so values from another search do not carry over
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(entries, 0);
+        java.util.Arrays.fill(tree_counts, 0);
+    }
+
+    // the slot holding key at depth, or -1
+    public int find(long key, int depth) {
+        probe_count++;
+        int i = slot(key);
+        if (keys[i] != key || (entries[i] & DEPTH_MASK) != depth + 1)
+            return -1;
+        hit_count++;
+        return i;
+    }
+
+    // a deeper subtree saves more, so it is kept over a shallower one
+    public void store(long key, int depth, int value, long tree_count) {
+        int i = slot(key);
+        if ((entries[i] & DEPTH_MASK) > depth + 1)
+            return;
+        store_count++;
+        keys[i] = key;
+        entries[i] = (long) value << 32 | depth + 1;
+        tree_counts[i] = tree_count;
+    }
+
+    public int getValue(int slot) {
+        return (int) (entries[slot] >> 32);
+    }
+
+    public long getTreeCount(int slot) {
+        return tree_counts[slot];
+    }
+}
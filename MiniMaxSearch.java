@@ -0,0 +1,200 @@
+import java.util.concurrent.*;
+
+public class MiniMaxSearch extends Search {
+
+    private ForkJoinPool pool;
+    private int split_plies;
+    private MemoTable memo;
+    // the positions the plain tree search would have evaluated, counting each memo hit's whole subtree
+    private long tree_count;
+
+    public MiniMaxSearch(Phase phase, Evaluator evaluator) {
+        super(phase, evaluator);
+    }
+
+    public void configure(Options options) {
+        super.configure(options);
+        if (options.getThreads() > 1) {
+            pool = new ForkJoinPool(options.getThreads());
+            split_plies = Math.max(1, options.getSplitPlies());
+        }
+        if (options.getMemoMegabytes() > 0)
+            memo = new MemoTable(options.getMemoMegabytes());
+    }
+
+    protected int searchRoot(Position position, int depth) {
+        tree_count = 0;
+        if (memo != null)
+            memo.clear();
+        if (pool == null)
+            return miniMax(position, depth, true);
+
+        SubtreeTask root = new SubtreeTask(position, depth, true, 0);
+        pool.invoke(root);
+        best_moves[depth] = root.best_move;
+        positions_evaluated_count = root.positions_evaluated_count;
+        return root.estimate;
+    }
+
+    // with the memo a subtree met before returns its value and adds its tree count without a
+    // position evaluated; the root is always searched, so its best move is set as without
+    public int miniMax(Position position, int depth, boolean is_max_player) {
+        if (memo == null || depth == root_depth)
+            return searchNode(position, depth, is_max_player);
+        long key = Zobrist.key(position.getHash(), is_max_player);
+        int slot = memo.find(key, depth);
+        if (slot >= 0) {
+            tree_count += memo.getTreeCount(slot);
+            return memo.getValue(slot);
+        }
+        long tree_count_before = tree_count;
+        int estimate = searchNode(position, depth, is_max_player);
+        memo.store(key, depth, estimate, tree_count - tree_count_before);
+        return estimate;
+    }
+
+    private int searchNode(Position position, int depth, boolean is_max_player) {
+        positions_evaluated_count++;
+        tree_count++;
+        if (terminal_detection) {
+            int terminal = terminalScore(position, is_max_player, root_depth - depth);
+            if (terminal != 0)
+                return terminal;
+        }
+        if (isRepetition(position, is_max_player, root_depth - depth))
+            return DRAW;
+        if (depth == 0) {
+            return evaluate(position);
+        }
+
+        enterNode(position, is_max_player);
+        int[] possible_moves = move_buffers[depth];
+        int move_count = phase.generateMoves(position, is_max_player, possible_moves);
+        if (depth == root_depth)
+            move_count = removeSymmetricMoves(position, is_max_player, possible_moves, move_count);
+        int best_estimate_value = is_max_player ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int best_move = 0;
+
+        for (int i = 0; i < move_count; i++) {
+            int move = possible_moves[i];
+            position.makeMove(move, is_max_player);
+            int estimate = miniMax(position, depth - 1, !is_max_player);
+            position.unmakeMove(move, is_max_player);
+
+            if (is_max_player && estimate > best_estimate_value) {
+                best_estimate_value = estimate;
+                best_move = move;
+            } else if (!is_max_player && estimate < best_estimate_value) {
+                best_estimate_value = estimate;
+                best_move = move;
+            }
+        }
+        leaveNode();
+
+        best_moves[depth] = best_move;
+        return best_estimate_value;
+    }
+
+    // the subtree tasks keep no line of play to check repetitions against
+    protected boolean acceptsRepetition(Options options) {
+        return options.getThreads() <= 1;
+    }
+
+    protected boolean acceptsSplitPlies() {
+        return true;
+    }
+
+    // a draw by repetition depends on the line that led to a position, not on the position alone
+    protected boolean acceptsMemo(Options options) {
+        return options.getThreads() <= 1 && !options.isRepetition();
+    }
+
+    public long getTreeCount() {
+        return tree_count;
+    }
+
+    public MemoTable getMemoTable() {
+        return memo;
+    }
+
+    public void report(java.io.PrintStream out) {
+        super.report(out);
+        if (memo != null)
+            out.println("Memoized minimax: " + memo.size() + " slots, " + positions_evaluated_count + " unique positions evaluated, "
+                    + tree_count + " tree-equivalent, " + memo.getHits() + " subtrees reused");
+        if (pool != null)
+            out.println("Parallel minimax: " + pool.getParallelism() + " threads, subtrees split " + split_plies + " plies deep");
+    }
+
+    // without pruning every subtree is independent: the first split_plies plies fan out as tasks on
+    // their own copies of the position, deeper plies run the sequential miniMax on a private search,
+    // and the results are combined in generation order with the same strict comparisons, so the
+    // estimate, the chosen move and the node count are exactly those of the sequential search
+    private class SubtreeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Position position;
+        private final int depth;
+        private final boolean is_max_player;
+        private final int ply;
+
+        int estimate;
+        int best_move;
+        int positions_evaluated_count;
+
+        SubtreeTask(Position position, int depth, boolean is_max_player, int ply) {
+            this.position = position;
+            this.depth = depth;
+            this.is_max_player = is_max_player;
+            this.ply = ply;
+        }
+
+        protected void compute() {
+            if (terminal_detection) {
+                int terminal = terminalScore(position, is_max_player, ply);
+                if (terminal != 0) {
+                    estimate = terminal;
+                    positions_evaluated_count = 1;
+                    return;
+                }
+            }
+            if (ply >= split_plies || depth == 0) {
+                MiniMaxSearch worker = new MiniMaxSearch(phase, evaluator);
+                worker.prepare(depth);
+                // plies, and so win distances, still count from the real root
+                worker.root_depth = depth + ply;
+                worker.terminal_detection = terminal_detection;
+                worker.evaluation_cache = evaluation_cache;
+                worker.incremental_terms = incremental_terms;
+                estimate = worker.miniMax(position, depth, is_max_player);
+                best_move = worker.best_moves[depth];
+                positions_evaluated_count = worker.positions_evaluated_count;
+                return;
+            }
+
+            int[] possible_moves = new int[Position.MAX_MOVES];
+            int move_count = phase.generateMoves(position, is_max_player, possible_moves);
+            if (ply == 0)
+                move_count = removeSymmetricMoves(position, is_max_player, possible_moves, move_count);
+            SubtreeTask[] children = new SubtreeTask[move_count];
+            for (int i = 0; i < move_count; i++) {
+                Position child = position.copy();
+                child.makeMove(possible_moves[i], is_max_player);
+                children[i] = new SubtreeTask(child, depth - 1, !is_max_player, ply + 1);
+            }
+            invokeAll(children);
+
+            estimate = is_max_player ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            positions_evaluated_count = 1;
+            for (int i = 0; i < move_count; i++) {
+                SubtreeTask child = children[i];
+                positions_evaluated_count += child.positions_evaluated_count;
+                if (is_max_player ? child.estimate > estimate : child.estimate < estimate) {
+                    estimate = child.estimate;
+                    best_move = possible_moves[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+public class Move {
+    private Board board;
+    private int minimax_estimate_value;
+    private int positions_evaluated_count;
+
+    public Move(Board board, int minimax_estimate_value, int positions_evaluated_count) {
+        this.board = board;
+        this.minimax_estimate_value = minimax_estimate_value;
+        this.positions_evaluated_count = positions_evaluated_count;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getMinimaxEstimate() {
+        return minimax_estimate_value;
+    }
+
+    public int getPositionsEvaluated() {
+        return positions_evaluated_count;
+    }
+}
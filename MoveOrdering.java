@@ -0,0 +1,87 @@
+// sorts each node's moves best-first before alpha-beta searches them:
+//   the hash or principal-variation move, then mill-closing moves ranked by the piece they remove,
+//   then the two killer moves of the ply, then the rest by their from/to history score
+public class MoveOrdering {
+
+    private static final int HASH_MOVE = Integer.MAX_VALUE;
+    private static final int MILL = 1 << 28;
+    private static final int FIRST_KILLER = MILL - 1;
+    private static final int SECOND_KILLER = MILL - 2;
+    // history scores are halved whenever one reaches this, so they never overtake a killer
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    private static final int FROM_SLOTS = Bitboard.POINTS + 1;
+
+    private int[][] killers;
+    private int[][] score_buffers;
+    private final int[] history = new int[FROM_SLOTS * Bitboard.POINTS];
+
+    // the killers belong to one search; the history carries over at half weight
+    public void newSearch(int max_depth) {
+        killers = new int[max_depth + 1][2];
+        if (score_buffers == null || score_buffers.length < max_depth + 1)
+            score_buffers = new int[max_depth + 1][Position.MAX_MOVES];
+        for (int i = 0; i < history.length; i++)
+            history[i] >>= 1;
+    }
+
+    public void order(Position position, boolean is_white_player, int[] moves, int count, int ply, int depth, int hash_move) {
+        int opponent = position.getPieces(!is_white_player);
+        int empty = Bitboard.empty(position.getWhite(), position.getBlack());
+        int[] killer = killers[ply];
+        int[] scores = score_buffers[depth];
+
+        // insertion sort, stable so that equal scores keep generation order
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int score;
+            if (move == hash_move)
+                score = HASH_MOVE;
+            else if (Moves.closesMill(move))
+                score = MILL + removalScore(Moves.removed(move), opponent, empty);
+            else if (move == killer[0])
+                score = FIRST_KILLER;
+            else if (move == killer[1])
+                score = SECOND_KILLER;
+            else
+                score = history[historyIndex(move)];
+
+            int j = i;
+            for (; j > 0 && scores[j - 1] < score; j--) {
+                scores[j] = scores[j - 1];
+                moves[j] = moves[j - 1];
+            }
+            scores[j] = score;
+            moves[j] = move;
+        }
+    }
+
+    // prefer taking a piece that threatens a mill, then one with room to move
+    private static int removalScore(int removed, int opponent, int empty) {
+        int score = Bitboard.count(Bitboard.getNeighbours(removed) & empty);
+        if (Bitboard.hasPotentialMill(removed, opponent, empty))
+            score += 8;
+        return score;
+    }
+
+    // captures are already ordered first, so only quiet moves become killers or gain history
+    public void recordCutoff(int move, int ply, int depth) {
+        if (Moves.closesMill(move))
+            return;
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int i = historyIndex(move);
+        history[i] += depth * depth;
+        if (history[i] >= HISTORY_LIMIT) {
+            for (int j = 0; j < history.length; j++)
+                history[j] >>= 1;
+        }
+    }
+
+    private static int historyIndex(int move) {
+        return (Moves.from(move) + 1) * Bitboard.POINTS + Moves.to(move);
+    }
+}
@@ -0,0 +1,57 @@
+public class Moves {
+
+    // points are stored one-based in five-bit fields so that 0 can mean "none" and the move 0 is "no move"
+    private static final int FIELD = 31;
+    private static final int FROM_SHIFT = 5;
+    private static final int REMOVED_SHIFT = 10;
+
+    public static final int MILL = 1 << 15;
+    public static final int HOP = 1 << 16;
+
+    private static final int[] MASKS = new int[FIELD + 1];
+
+    static {
+        for (int i = 1; i <= Bitboard.POINTS; i++)
+            MASKS[i] = Bitboard.bit(i - 1);
+    }
+
+    public static int encode(int from, int to, int removed, int flags) {
+        return (to + 1) | (from + 1) << FROM_SHIFT | (removed + 1) << REMOVED_SHIFT | flags;
+    }
+
+    public static int from(int move) {
+        return (move >>> FROM_SHIFT & FIELD) - 1;
+    }
+
+    public static int to(int move) {
+        return (move & FIELD) - 1;
+    }
+
+    public static int removed(int move) {
+        return (move >>> REMOVED_SHIFT & FIELD) - 1;
+    }
+
+    public static boolean isPlacement(int move) {
+        return (move >>> FROM_SHIFT & FIELD) == 0;
+    }
+
+    public static boolean closesMill(int move) {
+        return (move & MILL) != 0;
+    }
+
+    // the mover's points that flip: the target, plus the origin unless the piece is being placed
+    public static int playerDelta(int move) {
+        return MASKS[move & FIELD] | MASKS[move >>> FROM_SHIFT & FIELD];
+    }
+
+    public static int opponentDelta(int move) {
+        return MASKS[move >>> REMOVED_SHIFT & FIELD];
+    }
+
+    public static String format(int move) {
+        if (move == 0)
+            return "none";
+        String text = isPlacement(move) ? "" + to(move) : from(move) + "-" + to(move);
+        return removed(move) >= 0 ? text + "x" + removed(move) : text;
+    }
+}
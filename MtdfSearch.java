@@ -0,0 +1,65 @@
+// MTD(f): every iteration of iterative deepening is a series of null-window alphaBeta passes that
+// close in on the score from the previous iteration's guess, the table carrying each pass's work
+// into the next. The move is the one from the last pass that failed high: that pass stopped at the
+// first root move reaching the final score, in the order that iteration searched the root
+public class MtdfSearch extends AlphaBetaSearch {
+
+    private long pass_count;
+
+    public MtdfSearch(Phase phase, Evaluator evaluator) {
+        super(phase, evaluator);
+    }
+
+    public void configure(Options options) {
+        super.configure(options);
+        if (table == null)
+            table = new TranspositionTable(DEFAULT_HASH_MEGABYTES);
+    }
+
+    protected int searchRoot(Position position, int depth) {
+        pass_count = 0;
+        return super.searchRoot(position, depth);
+    }
+
+    protected boolean iterates() {
+        return true;
+    }
+
+    protected int searchIteration(Position position, int depth, int guess) {
+        int lower = Integer.MIN_VALUE;
+        int upper = Integer.MAX_VALUE;
+        int estimate = guess;
+        int best_move = 0;
+
+        while (lower < upper) {
+            int beta = estimate == lower ? estimate + 1 : estimate;
+            followVariation();
+            estimate = alphaBeta(position, depth, 0, beta - 1, beta, true);
+            pass_count++;
+            if (isAborted()) {
+                best_moves[depth] = 0;
+                return estimate;
+            }
+            if (estimate < beta) {
+                upper = estimate;
+                if (best_move == 0)
+                    best_move = best_moves[depth];
+            } else {
+                lower = estimate;
+                best_move = best_moves[depth];
+            }
+        }
+
+        best_moves[depth] = best_move;
+        return estimate;
+    }
+
+    public long getPasses() {
+        return pass_count;
+    }
+
+    public void report(java.io.PrintStream out) {
+        super.report(out);
+        out.println("MTD(f): " + pass_count + " null-window passes");
+    }
+}
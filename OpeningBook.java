@@ -0,0 +1,148 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+// best placements and their estimates for every board of the first few plies, found by the plain
+// alpha-beta of one evaluator at one depth. The file is a header of four ints (magic, evaluator,
+// depth, slot count) and an open-addressing table of 16-byte slots, a Zobrist.key and a packed
+// entry with the move in the low half and the estimate in the high half; an empty slot is all zero.
+// Boards are stored with white to move, as the search sees them, so black programs find theirs too,
+// and only in their canonical image under the evaluator's symmetries
+//
+// usage: java OpeningBook <book file> <evaluator> <depth> [plies, default 3]
+public class OpeningBook {
+
+    private static final int MAGIC = 0x4e4d4d42;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 16;
+
+    private final ByteBuffer slots;
+    private final Evaluator evaluator;
+    private final int depth;
+    private final int slot_count;
+
+    private OpeningBook(ByteBuffer slots, Evaluator evaluator, int depth, int slot_count) {
+        this.slots = slots;
+        this.evaluator = evaluator;
+        this.depth = depth;
+        this.slot_count = slot_count;
+    }
+
+    public static OpeningBook open(String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC)
+                throw new IOException(file + " is not an opening book");
+            int slot_count = buffer.getInt(12);
+            if (channel.size() != HEADER_BYTES + (long) SLOT_BYTES * slot_count)
+                throw new IOException(file + " is truncated");
+            return new OpeningBook(buffer, Evaluator.values()[buffer.getInt(4)], buffer.getInt(8), slot_count);
+        }
+    }
+
+    // the packed entry for the board with white to move, or 0 if the book does not have it. Only the
+    // canonical image under the evaluator's symmetries is stored, so the move is mapped back to the board
+    public long probe(int white, int black) {
+        Symmetry symmetry = evaluator.symmetry();
+        int image = symmetry.canonical(white, black);
+        long key = Zobrist.key(Zobrist.hash(symmetry.apply(image, white), symmetry.apply(image, black)), true);
+        for (int i = slot(key, slot_count); ; i = (i + 1) % slot_count) {
+            int offset = HEADER_BYTES + i * SLOT_BYTES;
+            long entry = slots.getLong(offset + 8);
+            if (entry == 0)
+                return 0;
+            if (slots.getLong(offset) == key) {
+                int move = symmetry.applyToMove(symmetry.inverse(image), move(entry));
+                return entry & ~0xffffffffL | move & 0xffffffffL;
+            }
+        }
+    }
+
+    public static int move(long entry) {
+        return (int) entry;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private static int slot(long key, int slot_count) {
+        return (int) ((key >>> 1) % slot_count);
+    }
+
+    public static void main(String[] args) throws Exception {
+        build(args[0], Evaluator.valueOf(args[1]), Integer.parseInt(args[2]), args.length > 3 ? Integer.parseInt(args[3]) : 3);
+    }
+
+    // every board up to the given number of placements from the empty one, with the side to move as
+    // white, searched in parallel; the table is kept at most half full so probes stay short
+    public static void build(String file, Evaluator evaluator, int depth, int plies) throws IOException {
+        List<Board> boards = openingBoards(plies, evaluator.symmetry());
+        long start = System.nanoTime();
+        long[] entries = boards.parallelStream().mapToLong(board -> {
+            Search search = Algorithm.ALPHA_BETA.create(Phase.OPENING, evaluator);
+            Move best_move = search.search(board, depth);
+            return (long) best_move.getMinimaxEstimate() << 32 | search.best_moves[depth] & 0xffffffffL;
+        }).toArray();
+
+        int slot_count = 2 * boards.size() + 1;
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) SLOT_BYTES * slot_count);
+            buffer.putInt(0, MAGIC).putInt(4, evaluator.ordinal()).putInt(8, depth).putInt(12, slot_count);
+            for (int b = 0; b < boards.size(); b++) {
+                long key = Zobrist.key(Zobrist.hash(boards.get(b).getWhite(), boards.get(b).getBlack()), true);
+                int i = slot(key, slot_count);
+                while (buffer.getLong(HEADER_BYTES + i * SLOT_BYTES + 8) != 0)
+                    i = (i + 1) % slot_count;
+                buffer.putLong(HEADER_BYTES + i * SLOT_BYTES, key).putLong(HEADER_BYTES + i * SLOT_BYTES + 8, entries[b]);
+            }
+        }
+        System.out.printf("%d boards, %s at depth %d, %.1f s%n", boards.size(), evaluator, depth, (System.nanoTime() - start) / 1e9);
+    }
+
+    // the canonical images of the boards after 0 to plies placements; those after an odd number,
+    // black's turn, are swapped first
+    private static List<Board> openingBoards(int plies, Symmetry symmetry) {
+        Set<Long> seen = new HashSet<>();
+        Set<Long> stored = new HashSet<>();
+        List<Board> boards = new ArrayList<>();
+        List<Position> layer = List.of(new Position(0, 0));
+        int[] moves = new int[Position.MAX_MOVES];
+        for (int ply = 0; ; ply++) {
+            for (Position position : layer) {
+                Board board = new Board(position.getWhite(), position.getBlack());
+                if (ply % 2 == 1)
+                    board = board.swap();
+                int image = symmetry.canonical(board.getWhite(), board.getBlack());
+                Board canonical = new Board(symmetry.apply(image, board.getWhite()), symmetry.apply(image, board.getBlack()));
+                if (stored.add((long) canonical.getWhite() << 32 | canonical.getBlack()))
+                    boards.add(canonical);
+            }
+            if (ply == plies)
+                return boards;
+            List<Position> next = new ArrayList<>();
+            boolean is_white_player = ply % 2 == 0;
+            for (Position position : layer) {
+                int move_count = position.generateMovesOpening(is_white_player, moves);
+                for (int i = 0; i < move_count; i++) {
+                    position.makeMove(moves[i], is_white_player);
+                    if (seen.add((long) position.getWhite() << 32 | position.getBlack()))
+                        next.add(new Position(position.getWhite(), position.getBlack()));
+                    position.unmakeMove(moves[i], is_white_player);
+                }
+            }
+            layer = next;
+        }
+    }
+}
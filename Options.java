@@ -0,0 +1,294 @@
+// optional engine settings that may follow <input file> <output file> <depth> on the command line
+public class Options {
+
+    private int hash_megabytes;
+    private long time_millis;
+    private boolean ordering;
+    private Algorithm algorithm;
+    private int threads = 1;
+    private int split_plies;
+    private boolean terminal_detection;
+    private boolean quiescence;
+    private boolean late_move_reductions;
+    private boolean futility;
+    private int futility_margin = -1;
+    private boolean repetition;
+    private String history_file;
+    private String tablebase_directory;
+    private String book_file;
+    private boolean symmetry;
+    private int incremental_terms;
+    private int evaluation_cache_kilobytes;
+    private int memo_megabytes;
+
+    public static Options parse(String[] args, int first) {
+        Options options = new Options();
+        for (int i = first; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("missing value for " + name);
+            String value = args[++i];
+            switch (name) {
+                case "--hash-mb":
+                    options.hash_megabytes = Integer.parseInt(value);
+                    break;
+                case "--time-ms":
+                    options.time_millis = Long.parseLong(value);
+                    break;
+                case "--ordering":
+                    options.ordering = parseSwitch(name, value);
+                    break;
+                case "--search":
+                    options.algorithm = Algorithm.forOptionName(value);
+                    break;
+                case "--threads":
+                    options.threads = value.equals("all") ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+                    break;
+                case "--terminal":
+                    options.terminal_detection = parseSwitch(name, value);
+                    break;
+                case "--quiescence":
+                    options.quiescence = parseSwitch(name, value);
+                    break;
+                case "--lmr":
+                    options.late_move_reductions = parseSwitch(name, value);
+                    break;
+                case "--futility":
+                    options.futility = parseSwitch(name, value);
+                    break;
+                case "--futility-margin":
+                    options.futility = true;
+                    options.futility_margin = Integer.parseInt(value);
+                    break;
+                case "--repetition":
+                    options.repetition = parseSwitch(name, value);
+                    break;
+                case "--history":
+                    options.repetition = true;
+                    options.history_file = value;
+                    break;
+                case "--tablebase":
+                    options.tablebase_directory = value;
+                    break;
+                case "--book":
+                    options.book_file = value;
+                    break;
+                case "--symmetry":
+                    options.symmetry = parseSwitch(name, value);
+                    break;
+                case "--incremental":
+                    options.incremental_terms = value.equals("check") ? 2 : parseSwitch(name, value) ? 1 : 0;
+                    break;
+                case "--eval-cache-kb":
+                    options.evaluation_cache_kilobytes = Integer.parseInt(value);
+                    break;
+                case "--memo-mb":
+                    options.memo_megabytes = Integer.parseInt(value);
+                    break;
+                case "--split-plies":
+                    options.split_plies = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + name);
+            }
+        }
+        return options;
+    }
+
+    private static boolean parseSwitch(String name, String value) {
+        if (value.equals("on"))
+            return true;
+        if (value.equals("off"))
+            return false;
+        throw new IllegalArgumentException(name + " takes on or off, not " + value);
+    }
+
+    // 0 leaves the transposition table off
+    public int getHashMegabytes() {
+        return hash_megabytes;
+    }
+
+    public Options setHashMegabytes(int hash_megabytes) {
+        this.hash_megabytes = hash_megabytes;
+        return this;
+    }
+
+    // 0 searches to the given depth; otherwise the depth is only a ceiling for iterative deepening
+    public long getTimeMillis() {
+        return time_millis;
+    }
+
+    public Options setTimeMillis(long time_millis) {
+        this.time_millis = time_millis;
+        return this;
+    }
+
+    // off keeps the generation order, and with it the node counts the programs have always printed
+    public boolean isOrdering() {
+        return ordering;
+    }
+
+    public Options setOrdering(boolean ordering) {
+        this.ordering = ordering;
+        return this;
+    }
+
+    // null keeps the program's own algorithm
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Options setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    // 1 searches on the calling thread; "all" on the command line means one per processor
+    public int getThreads() {
+        return threads;
+    }
+
+    public Options setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    // how many plies below the root a parallel minimax hands out as separate tasks; 0 when not given,
+    // which splits one ply deep
+    public int getSplitPlies() {
+        return split_plies;
+    }
+
+    public Options setSplitPlies(int split_plies) {
+        this.split_plies = split_plies;
+        return this;
+    }
+
+    // off searches on to the horizon whatever happens, as the programs always have
+    public boolean isTerminalDetection() {
+        return terminal_detection;
+    }
+
+    public Options setTerminalDetection(boolean terminal_detection) {
+        this.terminal_detection = terminal_detection;
+        return this;
+    }
+
+    // off evaluates every leaf where it stands, mill pending or not
+    public boolean isQuiescence() {
+        return quiescence;
+    }
+
+    public Options setQuiescence(boolean quiescence) {
+        this.quiescence = quiescence;
+        return this;
+    }
+
+    public boolean isLateMoveReductions() {
+        return late_move_reductions;
+    }
+
+    public Options setLateMoveReductions(boolean late_move_reductions) {
+        this.late_move_reductions = late_move_reductions;
+        return this;
+    }
+
+    // futility pruning applies to the moving phase only
+    public boolean isFutility() {
+        return futility;
+    }
+
+    public Options setFutility(boolean futility) {
+        this.futility = futility;
+        return this;
+    }
+
+    // -1 takes the margin from the evaluator's weights
+    public int getFutilityMargin() {
+        return futility_margin;
+    }
+
+    public Options setFutilityMargin(int futility_margin) {
+        this.futility_margin = futility_margin;
+        return this;
+    }
+
+    public boolean isRepetition() {
+        return repetition;
+    }
+
+    public Options setRepetition(boolean repetition) {
+        this.repetition = repetition;
+        return this;
+    }
+
+    // a file of the boards that led to the input board, one per line, oldest first; null for none
+    public String getHistoryFile() {
+        return history_file;
+    }
+
+    public Options setHistoryFile(String history_file) {
+        this.history_file = history_file;
+        return this;
+    }
+
+    // the directory java Tablebase wrote its class files to; null for none
+    public String getTablebaseDirectory() {
+        return tablebase_directory;
+    }
+
+    public Options setTablebaseDirectory(String tablebase_directory) {
+        this.tablebase_directory = tablebase_directory;
+        return this;
+    }
+
+    // a file java OpeningBook wrote; the placement-phase programs only; null for none
+    public String getBookFile() {
+        return book_file;
+    }
+
+    public Options setBookFile(String book_file) {
+        this.book_file = book_file;
+        return this;
+    }
+
+    // only the basic evaluators are symmetric, see Symmetry
+    public boolean isSymmetry() {
+        return symmetry;
+    }
+
+    public Options setSymmetry(boolean symmetry) {
+        this.symmetry = symmetry;
+        return this;
+    }
+
+    // 0 off, 1 on, 2 on and checked against a full recount after every move
+    public int getIncrementalTerms() {
+        return incremental_terms;
+    }
+
+    public Options setIncrementalTerms(int incremental_terms) {
+        this.incremental_terms = incremental_terms;
+        return this;
+    }
+
+    // 0 leaves the evaluation cache off
+    public int getEvaluationCacheKilobytes() {
+        return evaluation_cache_kilobytes;
+    }
+
+    public Options setEvaluationCacheKilobytes(int evaluation_cache_kilobytes) {
+        this.evaluation_cache_kilobytes = evaluation_cache_kilobytes;
+        return this;
+    }
+
+    // 0 searches the minimax tree in full, transpositions and all
+    public int getMemoMegabytes() {
+        return memo_megabytes;
+    }
+
+    public Options setMemoMegabytes(int memo_megabytes) {
+        this.memo_megabytes = memo_megabytes;
+        return this;
+    }
+}
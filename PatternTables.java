@@ -0,0 +1,142 @@
+// the improved evaluators as lookups. Whether a piece stands in a mill or has a potential mill depends
+// only on the mill lines through its point, so each point gets a table indexed by the states of those
+// lines, 27 each (empty, white or black on each of three points), holding the whole weighted
+// contribution of the point: its piece, its mill and its potential mill, positive for white and
+// negative for black. On this board a point lies on one to three lines; missing ones read an extra
+// line state that is always empty. The tables are filled by asking Bitboard about every pattern, so
+// the point-10 potential-mill quirk comes along as it is. All twelve line states are packed five bits
+// apiece into one long, summed from per-chunk tables of the white and the black bitboard, so building
+// them is six lookups. Blocked pieces need the neighbours rather than the lines and are counted from
+// the points next to an empty one, the union of adjacency masks over the empty points, three more
+public class PatternTables {
+
+    private static final int STATES = 27;
+    private static final int WHITE = 1;
+    private static final int BLACK = 2;
+    private static final int MAX_LINES = 3;
+    private static final int NO_LINE = Bitboard.MILL_LINES.length;
+    private static final int STATE_BITS = 5;
+    private static final int CHUNK = 6;
+    private static final int CHUNKS = Bitboard.POINTS / CHUNK;
+
+    // for each point, the lines through it, padded with NO_LINE, and its place value (1, 3 or 9) in each;
+    // the padding's place value is 0, so NO_LINE's state stays empty
+    private static final int[][] LINES = new int[Bitboard.POINTS][MAX_LINES];
+    private static final int[][] PLACES = new int[Bitboard.POINTS][MAX_LINES];
+    private static final int[] LINE_COUNTS = new int[Bitboard.POINTS];
+    // the packed line states of the pieces of one colour on the bits of one chunk
+    private static final long[][] WHITE_STATES = new long[CHUNKS][1 << CHUNK];
+    private static final long[][] BLACK_STATES = new long[CHUNKS][1 << CHUNK];
+    // the points next to any point of one chunk's bits
+    private static final int[][] NEIGHBOURS = new int[CHUNKS][1 << CHUNK];
+
+    static {
+        for (int[] lines : LINES)
+            java.util.Arrays.fill(lines, NO_LINE);
+        for (int l = 0; l < Bitboard.MILL_LINES.length; l++) {
+            int place = 1;
+            for (int rest = Bitboard.MILL_LINES[l]; rest != 0; rest &= rest - 1, place *= 3) {
+                int p = Integer.numberOfTrailingZeros(rest);
+                LINES[p][LINE_COUNTS[p]] = l;
+                PLACES[p][LINE_COUNTS[p]++] = place;
+            }
+        }
+        for (int c = 0; c < CHUNKS; c++) {
+            for (int bits = 0; bits < 1 << CHUNK; bits++) {
+                NEIGHBOURS[c][bits] = Bitboard.mobility(bits << c * CHUNK);
+                for (int rest = bits << c * CHUNK; rest != 0; rest &= rest - 1) {
+                    int p = Integer.numberOfTrailingZeros(rest);
+                    for (int i = 0; i < MAX_LINES; i++) {
+                        WHITE_STATES[c][bits] += (long) WHITE * PLACES[p][i] << LINES[p][i] * STATE_BITS;
+                        BLACK_STATES[c][bits] += (long) BLACK * PLACES[p][i] << LINES[p][i] * STATE_BITS;
+                    }
+                }
+            }
+        }
+    }
+
+    // after the line tables above, which building them needs: mill piece, piece, potential mill and blocked weights
+    public static final PatternTables IMPROVED = new PatternTables(80, 5, 10, 0);
+    public static final PatternTables UPDATED = new PatternTables(80, 5, 10, 3);
+
+    private final int blocked_weight;
+    private final int[][] point_tables = new int[Bitboard.POINTS][];
+
+    public PatternTables(int mill_piece_weight, int piece_weight, int potential_mill_weight, int blocked_weight) {
+        this.blocked_weight = blocked_weight;
+        for (int p = 0; p < Bitboard.POINTS; p++) {
+            int size = 1;
+            for (int i = 0; i < LINE_COUNTS[p]; i++)
+                size *= STATES;
+            point_tables[p] = new int[size];
+            for (int index = 0; index < size; index++) {
+                int white = 0;
+                int black = 0;
+                int lines = 0;
+                int digit = -1;
+                boolean consistent = true;
+                for (int i = 0, state = index; i < LINE_COUNTS[p]; i++, state /= STATES) {
+                    int line = LINES[p][i];
+                    white |= pieces(line, state % STATES, WHITE);
+                    black |= pieces(line, state % STATES, BLACK);
+                    lines |= Bitboard.MILL_LINES[line];
+                    // every line's state must agree on the point itself
+                    int own = state % STATES / PLACES[p][i] % 3;
+                    consistent &= digit < 0 || digit == own;
+                    digit = own;
+                }
+                if (!consistent || (white & black) != 0)
+                    continue;
+                int empty = lines & ~(white | black);
+                int value = 0;
+                for (boolean is_white : new boolean[] {true, false}) {
+                    int own = is_white ? white : black;
+                    if ((own & Bitboard.bit(p)) == 0)
+                        continue;
+                    int contribution = piece_weight;
+                    if ((Bitboard.millPieces(own) & Bitboard.bit(p)) != 0)
+                        contribution += mill_piece_weight;
+                    if (Bitboard.hasPotentialMill(p, own, empty))
+                        contribution += potential_mill_weight;
+                    value = is_white ? contribution : -contribution;
+                }
+                point_tables[p][index] = value;
+            }
+        }
+    }
+
+    private static int pieces(int line, int state, int colour) {
+        int pieces = 0;
+        int place = 1;
+        for (int rest = Bitboard.MILL_LINES[line]; rest != 0; rest &= rest - 1, place *= 3) {
+            if (state / place % 3 == colour)
+                pieces |= rest & -rest;
+        }
+        return pieces;
+    }
+
+    private static int lineState(long line_states, int line) {
+        return (int) (line_states >>> line * STATE_BITS) & (1 << STATE_BITS) - 1;
+    }
+
+    public int evaluate(int white, int black) {
+        long line_states = 0;
+        for (int c = 0; c < CHUNKS; c++)
+            line_states += WHITE_STATES[c][white >> c * CHUNK & (1 << CHUNK) - 1] + BLACK_STATES[c][black >> c * CHUNK & (1 << CHUNK) - 1];
+
+        int value = 0;
+        for (int rest = white | black; rest != 0; rest &= rest - 1) {
+            int p = Integer.numberOfTrailingZeros(rest);
+            int[] lines = LINES[p];
+            value += point_tables[p][lineState(line_states, lines[0]) + STATES * (lineState(line_states, lines[1]) + STATES * lineState(line_states, lines[2]))];
+        }
+        if (blocked_weight != 0) {
+            int empty = Bitboard.empty(white, black);
+            int mobile = 0;
+            for (int c = 0; c < CHUNKS; c++)
+                mobile |= NEIGHBOURS[c][empty >> c * CHUNK & (1 << CHUNK) - 1];
+            value += blocked_weight * (Bitboard.count(black & ~mobile) - Bitboard.count(white & ~mobile));
+        }
+        return value;
+    }
+}
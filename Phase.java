@@ -0,0 +1,14 @@
+public enum Phase {
+    OPENING {
+        public int generateMoves(Position position, boolean is_white_player, int[] moves) {
+            return position.generateMovesOpening(is_white_player, moves);
+        }
+    },
+    GAME {
+        public int generateMoves(Position position, boolean is_white_player, int[] moves) {
+            return position.generateMovesGame(is_white_player, moves);
+        }
+    };
+
+    public abstract int generateMoves(Position position, boolean is_white_player, int[] moves);
+}
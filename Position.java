@@ -0,0 +1,144 @@
+public class Position {
+
+    public static final int MAX_MOVES = 256;
+
+    private int white;
+    private int black;
+    private long hash;
+    private EvaluationTerms terms;
+
+    public Position(int white, int black) {
+        this.white = white;
+        this.black = black;
+        this.hash = Zobrist.hash(white, black);
+    }
+
+    public int getWhite() {
+        return white;
+    }
+
+    public int getBlack() {
+        return black;
+    }
+
+    public int getPieces(boolean is_white) {
+        return is_white ? white : black;
+    }
+
+    // keeps the improved evaluators' features up to date through makeMove and unmakeMove from now on
+    public void trackTerms(boolean checked) {
+        terms = new EvaluationTerms(white, black, checked);
+    }
+
+    // null unless trackTerms was called
+    public EvaluationTerms getTerms() {
+        return terms;
+    }
+
+    // a position of its own on the same board, tracking terms if this one does
+    public Position copy() {
+        Position copy = new Position(white, black);
+        if (terms != null)
+            copy.terms = terms.copy(white, black);
+        return copy;
+    }
+
+    // Zobrist hash of the pieces only; Zobrist.key adds the side to move
+    public long getHash() {
+        return hash;
+    }
+
+    public void makeMove(int move, boolean is_white_player) {
+        int old_white = white;
+        int old_black = black;
+        flip(move, is_white_player);
+        if (terms != null)
+            terms.makeMove(old_white, old_black, white, black);
+    }
+
+    public void unmakeMove(int move, boolean is_white_player) {
+        flip(move, is_white_player);
+        if (terms != null)
+            terms.unmakeMove();
+    }
+
+    private void flip(int move, boolean is_white_player) {
+        int player_delta = Moves.playerDelta(move);
+        int opponent_delta = Moves.opponentDelta(move);
+        if (is_white_player) {
+            white ^= player_delta;
+            black ^= opponent_delta;
+        } else {
+            black ^= player_delta;
+            white ^= opponent_delta;
+        }
+        hash ^= Zobrist.flip(player_delta, is_white_player) ^ Zobrist.flip(opponent_delta, !is_white_player);
+    }
+
+    public int generateMovesOpening(boolean is_white_player, int[] moves) {
+        int player = getPieces(is_white_player);
+        int opponent = getPieces(!is_white_player);
+        int count = 0;
+
+        for (int targets = Bitboard.empty(player, opponent); targets != 0; targets &= targets - 1) {
+            int i = Integer.numberOfTrailingZeros(targets);
+            count = addMoves(moves, count, -1, i, 0, player | Bitboard.bit(i), opponent);
+        }
+        return count;
+    }
+
+    public int generateMovesGame(boolean is_white_player, int[] moves) {
+        if (Bitboard.count(getPieces(is_white_player)) == 3)
+            return generateHopping(is_white_player, moves);
+        else
+            return generateMove(is_white_player, moves);
+    }
+
+    // the number of moves generateMovesGame would make, from masks alone
+    public int countMovesGame(boolean is_white_player) {
+        return Bitboard.countMovesGame(getPieces(is_white_player), getPieces(!is_white_player));
+    }
+
+    public int generateMove(boolean is_white_player, int[] moves) {
+        int player = getPieces(is_white_player);
+        int opponent = getPieces(!is_white_player);
+        int empty = Bitboard.empty(player, opponent);
+        int count = 0;
+
+        for (int pieces = player; pieces != 0; pieces &= pieces - 1) {
+            int i = Integer.numberOfTrailingZeros(pieces);
+            for (int targets = Bitboard.getNeighbours(i) & empty; targets != 0; targets &= targets - 1) {
+                int p = Integer.numberOfTrailingZeros(targets);
+                count = addMoves(moves, count, i, p, 0, player ^ Bitboard.bit(i) ^ Bitboard.bit(p), opponent);
+            }
+        }
+        return count;
+    }
+
+    public int generateHopping(boolean is_white_player, int[] moves) {
+        int player = getPieces(is_white_player);
+        int opponent = getPieces(!is_white_player);
+        int empty = Bitboard.empty(player, opponent);
+        int count = 0;
+
+        for (int pieces = player; pieces != 0; pieces &= pieces - 1) {
+            int i = Integer.numberOfTrailingZeros(pieces);
+            for (int targets = empty; targets != 0; targets &= targets - 1) {
+                int j = Integer.numberOfTrailingZeros(targets);
+                count = addMoves(moves, count, i, j, Moves.HOP, player ^ Bitboard.bit(i) ^ Bitboard.bit(j), opponent);
+            }
+        }
+        return count;
+    }
+
+    private static int addMoves(int[] moves, int count, int from, int to, int flags, int player, int opponent) {
+        if (Bitboard.closeMill(to, player)) {
+            for (int removable = Bitboard.generateRemove(opponent); removable != 0; removable &= removable - 1) {
+                moves[count++] = Moves.encode(from, to, Integer.numberOfTrailingZeros(removable), flags | Moves.MILL);
+            }
+        } else {
+            moves[count++] = Moves.encode(from, to, -1, flags);
+        }
+        return count;
+    }
+}
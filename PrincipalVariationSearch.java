@@ -0,0 +1,46 @@
+// NegaScout in minimax form: the first child gets the full window, the rest a null window that only
+// asks whether they beat the best so far, and a child is searched again in full only when it does
+public class PrincipalVariationSearch extends AlphaBetaSearch {
+
+    private long re_search_count;
+
+    public PrincipalVariationSearch(Phase phase, Evaluator evaluator) {
+        super(phase, evaluator);
+    }
+
+    protected int searchRoot(Position position, int depth) {
+        re_search_count = 0;
+        return super.searchRoot(position, depth);
+    }
+
+    protected int searchChild(Position position, int depth, int ply, int alpha, int beta, boolean is_max_player, int index) {
+        if (index == 0)
+            return alphaBeta(position, depth, ply, alpha, beta, is_max_player);
+
+        // the child's side is the opponent of the parent, whose bound is the one being tested
+        if (!is_max_player) {
+            int estimate = alphaBeta(position, depth, ply, alpha, alpha + 1, false);
+            if (estimate > alpha && estimate < beta && !isAborted()) {
+                re_search_count++;
+                estimate = alphaBeta(position, depth, ply, alpha, beta, false);
+            }
+            return estimate;
+        } else {
+            int estimate = alphaBeta(position, depth, ply, beta - 1, beta, true);
+            if (estimate < beta && estimate > alpha && !isAborted()) {
+                re_search_count++;
+                estimate = alphaBeta(position, depth, ply, alpha, beta, true);
+            }
+            return estimate;
+        }
+    }
+
+    public long getReSearches() {
+        return re_search_count;
+    }
+
+    public void report(java.io.PrintStream out) {
+        super.report(out);
+        out.println("Principal variation search: " + re_search_count + " re-searches");
+    }
+}
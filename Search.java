@@ -0,0 +1,264 @@
+public abstract class Search {
+
+    // a won position scores WIN less the plies it took, from white's point of view, so a quicker
+    // win is preferred and a slower loss; nothing the evaluators return comes near it
+    public static final int WIN = 100000;
+    public static final int DRAW = 0;
+    private static final int WIN_BOUND = WIN - 1000;
+
+    protected final Phase phase;
+    protected final Evaluator evaluator;
+
+    protected int[][] move_buffers;
+    protected int[] best_moves;
+    protected int positions_evaluated_count;
+    protected int root_depth;
+    protected TranspositionTable table;
+    protected boolean terminal_detection;
+    protected GameHistory game_history;
+    protected int repetition_count;
+    protected OpeningBook book;
+    protected Symmetry symmetry;
+    protected int symmetric_move_count;
+    protected EvaluationCache evaluation_cache;
+    // 0 off, 1 incremental evaluation terms, 2 checked against a full recount at every move
+    protected int incremental_terms;
+    private boolean book_hit;
+
+    public Search(Phase phase, Evaluator evaluator) {
+        this.phase = phase;
+        this.evaluator = evaluator;
+    }
+
+    // white is always the side to move at the root
+    public Move search(Board board, int depth) {
+        Position position = new Position(board.getWhite(), board.getBlack());
+        // a book built at least this deep answers without a search, and so without a node evaluated
+        book_hit = false;
+        if (book != null && book.getDepth() >= depth) {
+            long entry = book.probe(board.getWhite(), board.getBlack());
+            if (entry != 0) {
+                book_hit = true;
+                positions_evaluated_count = 0;
+                position.makeMove(OpeningBook.move(entry), true);
+                return new Move(new Board(position.getWhite(), position.getBlack()), OpeningBook.score(entry), 0);
+            }
+        }
+        prepare(depth);
+        if (table != null)
+            table.newSearch();
+        if (incremental_terms > 0)
+            position.trackTerms(incremental_terms == 2);
+
+        int estimate = searchRoot(position, depth);
+        position.makeMove(best_moves[depth], true);
+        return new Move(new Board(position.getWhite(), position.getBlack()), estimate, positions_evaluated_count);
+    }
+
+    // fresh buffers and counters for a search of the given depth
+    protected void prepare(int depth) {
+        move_buffers = new int[depth + 1][Position.MAX_MOVES];
+        best_moves = new int[depth + 1];
+        positions_evaluated_count = 0;
+        root_depth = depth;
+        repetition_count = 0;
+        symmetric_move_count = 0;
+        if (game_history != null)
+            game_history.reset();
+    }
+
+    public int getPositionsEvaluated() {
+        return positions_evaluated_count;
+    }
+
+    public void configure(Options options) {
+        terminal_detection = options.isTerminalDetection();
+        if (!acceptsAlphaBetaOptions() && (options.getHashMegabytes() > 0 || options.getTimeMillis() > 0
+                || options.isOrdering() || options.isQuiescence() || options.isLateMoveReductions() || options.isFutility()
+                || options.getTablebaseDirectory() != null))
+            throw new IllegalArgumentException("--hash-mb, --time-ms, --ordering, --quiescence, --lmr, --futility and --tablebase need an alpha-beta search");
+        // a mill-closing placement adds a piece for each one it takes, so captures never thin out the board
+        if (options.isQuiescence() && phase != Phase.GAME)
+            throw new IllegalArgumentException("--quiescence needs a game-phase program");
+        // the tablebase solves moving-phase positions only
+        if (options.getTablebaseDirectory() != null && phase != Phase.GAME)
+            throw new IllegalArgumentException("--tablebase needs a game-phase program");
+        // the futility margin bounds what one quiet moving-phase move can change
+        if (options.isFutility() && phase != Phase.GAME)
+            throw new IllegalArgumentException("--futility needs a game-phase program");
+        if (options.getBookFile() != null) {
+            if (phase != Phase.OPENING)
+                throw new IllegalArgumentException("--book needs a placement-phase program");
+            try {
+                book = OpeningBook.open(options.getBookFile());
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+            if (book.getEvaluator() != evaluator)
+                throw new IllegalArgumentException(options.getBookFile() + " was built for " + book.getEvaluator() + ", not " + evaluator);
+        }
+        if (options.getSplitPlies() > 0 && !acceptsSplitPlies())
+            throw new IllegalArgumentException("--split-plies needs a minimax search");
+        if (options.getMemoMegabytes() > 0 && !acceptsMemo(options))
+            throw new IllegalArgumentException("--memo-mb needs a single-threaded minimax without --repetition");
+        incremental_terms = options.getIncrementalTerms();
+        if (options.getEvaluationCacheKilobytes() > 0)
+            evaluation_cache = new EvaluationCache(options.getEvaluationCacheKilobytes());
+        // with only the identity there is nothing to share
+        if (options.isSymmetry() && evaluator.symmetry().size() > 1)
+            symmetry = evaluator.symmetry();
+        if (options.isRepetition()) {
+            if (!acceptsRepetition(options))
+                throw new IllegalArgumentException("--repetition and --history need a single-threaded minimax or an alpha-beta search");
+            game_history = new GameHistory();
+        }
+    }
+
+    protected boolean acceptsAlphaBetaOptions() {
+        return false;
+    }
+
+    protected boolean acceptsRepetition(Options options) {
+        return false;
+    }
+
+    protected boolean acceptsMemo(Options options) {
+        return false;
+    }
+
+    protected boolean acceptsSplitPlies() {
+        return false;
+    }
+
+    // the game so far, in the colours of the board being searched; needs --repetition
+    public void setGameHistory(Board[] boards) {
+        if (game_history == null)
+            throw new IllegalStateException("repetition detection is off");
+        game_history = GameHistory.of(boards);
+    }
+
+    // only the moving phase can repeat a position, since a placement adds a piece. The root itself
+    // is never a draw, as a move is wanted from it
+    protected boolean isRepetition(Position position, boolean is_max_player, int ply) {
+        if (game_history == null || phase != Phase.GAME || ply == 0
+                || !game_history.repeats(Zobrist.key(position.getHash(), is_max_player)))
+            return false;
+        repetition_count++;
+        return true;
+    }
+
+    // drops root moves that lead to an image of an earlier move's position. Symmetric positions have
+    // the same estimate, and the earlier move is kept, so the chosen move and estimate do not change
+    protected int removeSymmetricMoves(Position position, boolean is_max_player, int[] moves, int move_count) {
+        if (symmetry == null)
+            return move_count;
+        long[] seen = new long[move_count];
+        int kept = 0;
+        for (int i = 0; i < move_count; i++) {
+            position.makeMove(moves[i], is_max_player);
+            long hash = symmetry.canonicalHash(position.getWhite(), position.getBlack());
+            position.unmakeMove(moves[i], is_max_player);
+            boolean repeated = false;
+            for (int j = 0; j < kept && !repeated; j++)
+                repeated = seen[j] == hash;
+            if (repeated) {
+                symmetric_move_count++;
+                continue;
+            }
+            seen[kept] = hash;
+            moves[kept++] = moves[i];
+        }
+        return kept;
+    }
+
+    // the evaluator's estimate, looked up in the evaluation cache first when there is one, and from
+    // the position's tracked terms under --incremental
+    protected int evaluate(Position position) {
+        if (evaluation_cache == null && incremental_terms == 0)
+            return evaluator.evaluate(position);
+        if (evaluation_cache == null)
+            return evaluator.evaluate(position, position.getTerms());
+        long entry = evaluation_cache.probe(position.getHash());
+        if (entry != 0)
+            return EvaluationCache.estimate(entry);
+        int estimate = incremental_terms == 0 ? evaluator.evaluate(position) : evaluator.evaluate(position, position.getTerms());
+        evaluation_cache.store(position.getHash(), estimate);
+        return estimate;
+    }
+
+    protected void enterNode(Position position, boolean is_max_player) {
+        if (game_history != null)
+            game_history.push(Zobrist.key(position.getHash(), is_max_player));
+    }
+
+    protected void leaveNode() {
+        if (game_history != null)
+            game_history.pop();
+    }
+
+    // the game is over when the side to move is down to two pieces or, with more than three and
+    // so unable to hop, has every piece blocked; only the moving phase can end. Returns the
+    // score of the finished game, or 0 while it goes on
+    protected int terminalScore(Position position, boolean is_max_player, int ply) {
+        if (phase != Phase.GAME)
+            return 0;
+        int player = position.getPieces(is_max_player);
+        int opponent = position.getPieces(!is_max_player);
+        int player_pieces_count = Bitboard.count(player);
+        boolean lost = player_pieces_count < 3;
+        boolean won = !lost && Bitboard.count(opponent) < 3;
+        if (!lost && !won && player_pieces_count > 3)
+            lost = (player & Bitboard.mobility(Bitboard.empty(player, opponent))) == 0;
+        if (!lost && !won)
+            return 0;
+        return lost == is_max_player ? -(WIN - ply) : WIN - ply;
+    }
+
+    public static boolean isWinScore(int score) {
+        return score >= WIN_BOUND && score <= WIN || score <= -WIN_BOUND && score >= -WIN;
+    }
+
+    // the table keeps win scores as distances from the stored node, since the same position can be
+    // reached at another ply, for instance in the next iteration of iterative deepening
+    protected static int scoreToTable(int score, int ply) {
+        if (!isWinScore(score))
+            return score;
+        return score > 0 ? score + ply : score - ply;
+    }
+
+    protected static int scoreFromTable(int score, int ply) {
+        if (!isWinScore(score))
+            return score;
+        return score > 0 ? score - ply : score + ply;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    // extra lines for the run summary, printed only for features that were switched on
+    public void report(java.io.PrintStream out) {
+        if (table != null)
+            out.println("Transposition table: " + table.size() + " slots, " + table.getProbes() + " probes, "
+                    + table.getHits() + " hits, " + table.getStores() + " stores");
+        if (evaluation_cache != null) {
+            long probes = evaluation_cache.getProbes();
+            long hits = evaluation_cache.getHits();
+            out.printf("Evaluation cache: %d slots, %d probes, %d hits (%.1f%%)%n", evaluation_cache.size(), probes, hits,
+                    probes == 0 ? 0.0 : 100.0 * hits / probes);
+        }
+        if (book != null)
+            out.println("Opening book: " + (book_hit ? "answered" : "not in book") + ", built at depth " + book.getDepth());
+        if (symmetry != null)
+            out.println("Symmetry: " + symmetry.size() + " board symmetries, " + symmetric_move_count + " symmetric root moves skipped");
+        if (game_history != null)
+            out.println("Repetition detection: " + game_history.getGameLength() + " earlier positions, "
+                    + repetition_count + " repetitions scored as draws");
+    }
+
+    protected abstract int searchRoot(Position position, int depth);
+}
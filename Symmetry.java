@@ -0,0 +1,143 @@
+import java.util.*;
+
+// the permutations of the points that map the board onto itself, found from the adjacency and line
+// tables rather than written out, with lookup tables that apply one to a bitboard six points at a time.
+// RULES keeps neighbours and mills, so move generation, removals and results are the same in every
+// image of a position; POTENTIAL_MILLS also keeps the potential-mill heuristic, whose point-10 quirk
+// leaves only the identity on this board, so the improved evaluators get no symmetry at all
+public class Symmetry {
+
+    public static final Symmetry RULES = new Symmetry(false);
+    public static final Symmetry POTENTIAL_MILLS = new Symmetry(true);
+
+    private static final int CHUNK = 6;
+    private static final int CHUNKS = Bitboard.POINTS / CHUNK;
+
+    private final int[][] permutations;
+    private final int[] inverses;
+    private final int[][][] tables;
+
+    private Symmetry(boolean potential_mills) {
+        List<int[]> found = new ArrayList<>();
+        extend(new int[Bitboard.POINTS], 0, new boolean[Bitboard.POINTS], potential_mills, found);
+        permutations = found.toArray(new int[0][]);
+
+        inverses = new int[permutations.length];
+        for (int g = 0; g < permutations.length; g++) {
+            for (int h = 0; h < permutations.length; h++) {
+                if (isInverse(permutations[g], permutations[h]))
+                    inverses[g] = h;
+            }
+        }
+
+        tables = new int[permutations.length][CHUNKS][1 << CHUNK];
+        for (int g = 0; g < permutations.length; g++) {
+            for (int c = 0; c < CHUNKS; c++) {
+                for (int bits = 0; bits < 1 << CHUNK; bits++)
+                    tables[g][c][bits] = transform(permutations[g], bits << c * CHUNK);
+            }
+        }
+    }
+
+    // assigns images to points 0, 1, 2... in turn, keeping adjacency with every point already placed;
+    // images are tried smallest first, so the identity is always element 0
+    private static void extend(int[] permutation, int point, boolean[] used, boolean potential_mills, List<int[]> found) {
+        if (point == Bitboard.POINTS) {
+            if (keepsLines(permutation) && (!potential_mills || keepsPotentialPairs(permutation)))
+                found.add(permutation.clone());
+            return;
+        }
+        for (int image = 0; image < Bitboard.POINTS; image++) {
+            if (used[image])
+                continue;
+            boolean fits = true;
+            for (int p = 0; p < point && fits; p++)
+                fits = ((Bitboard.ADJACENT[point] >> p & 1) == 1) == ((Bitboard.ADJACENT[image] >> permutation[p] & 1) == 1);
+            if (!fits)
+                continue;
+            used[image] = true;
+            permutation[point] = image;
+            extend(permutation, point + 1, used, potential_mills, found);
+            used[image] = false;
+        }
+    }
+
+    private static boolean keepsLines(int[] permutation) {
+        for (int line : Bitboard.MILL_LINES) {
+            int image = transform(permutation, line);
+            if (Arrays.stream(Bitboard.MILL_LINES).noneMatch(l -> l == image))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean keepsPotentialPairs(int[] permutation) {
+        for (int line : Bitboard.MILL_LINES) {
+            for (int rest = line; rest != 0; rest &= rest - 1) {
+                int point = Integer.numberOfTrailingZeros(rest);
+                int pair = line & ~Bitboard.bit(point);
+                if (Bitboard.isPotentialPair(point, pair) != Bitboard.isPotentialPair(permutation[point], transform(permutation, pair)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInverse(int[] permutation, int[] candidate) {
+        for (int p = 0; p < Bitboard.POINTS; p++) {
+            if (candidate[permutation[p]] != p)
+                return false;
+        }
+        return true;
+    }
+
+    private static int transform(int[] permutation, int bits) {
+        int image = 0;
+        for (int rest = bits; rest != 0; rest &= rest - 1)
+            image |= Bitboard.bit(permutation[Integer.numberOfTrailingZeros(rest)]);
+        return image;
+    }
+
+    public int size() {
+        return permutations.length;
+    }
+
+    public int apply(int g, int bits) {
+        int[][] table = tables[g];
+        return table[0][bits & 63] | table[1][bits >>> 6 & 63] | table[2][bits >>> 12];
+    }
+
+    public int inverse(int g) {
+        return inverses[g];
+    }
+
+    // the element taking the position to its canonical image, the one with the smallest white and
+    // then black mask; the identity when several do
+    public int canonical(int white, int black) {
+        int best = 0;
+        long smallest = (long) white << Bitboard.POINTS | black;
+        for (int g = 1; g < permutations.length; g++) {
+            long image = (long) apply(g, white) << Bitboard.POINTS | apply(g, black);
+            if (image < smallest) {
+                smallest = image;
+                best = g;
+            }
+        }
+        return best;
+    }
+
+    public long canonicalHash(int white, int black) {
+        int g = canonical(white, black);
+        return Zobrist.hash(apply(g, white), apply(g, black));
+    }
+
+    public int applyToMove(int g, int move) {
+        if (move == 0)
+            return 0;
+        int[] permutation = permutations[g];
+        int from = Moves.from(move);
+        int removed = Moves.removed(move);
+        return Moves.encode(from < 0 ? -1 : permutation[from], permutation[Moves.to(move)],
+                removed < 0 ? -1 : permutation[removed], move & (Moves.MILL | Moves.HOP));
+    }
+}
@@ -0,0 +1,338 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+// exact results of moving-phase positions with few pieces, from the point of view of the side to move.
+// One file per material class, <player pieces>v<opponent pieces>.tb, holding a big-endian short per
+// position: 0 a draw, n > 0 a win in n plies, n < 0 a loss in -n - 1 plies. Positions are indexed by
+// the rank of the mover's pieces among the 18 points, then of the opponent's among the points left.
+// Only one position of each set of symmetric images (Symmetry.RULES) is solved; the others are
+// copies, so the files keep every position and probes go straight to the index.
+//
+// usage: java Tablebase <directory> [pieces per side, default 4]
+public class Tablebase {
+
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+    public static final int MAX_PIECES = 9;
+
+    private static final int[][] BINOMIAL = new int[Bitboard.POINTS + 1][Bitboard.POINTS + 1];
+
+    static {
+        for (int n = 0; n <= Bitboard.POINTS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++)
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+        }
+    }
+
+    private final ShortBuffer[][] classes = new ShortBuffer[MAX_PIECES + 1][MAX_PIECES + 1];
+    private long probe_count;
+    // probes that reached a generated class, and those of them that read a win or a loss; a draw is
+    // also what every position the retrograde passes never decided reads
+    private long found_count;
+    private long decided_count;
+
+    // maps every class file found in the directory; classes that are missing probe as NOT_FOUND
+    public static Tablebase open(String directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        for (int p = 3; p <= MAX_PIECES; p++) {
+            for (int o = 3; o <= MAX_PIECES && p + o <= Bitboard.POINTS; o++) {
+                Path path = Paths.get(directory, fileName(p, o));
+                if (!Files.exists(path))
+                    continue;
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    if (channel.size() != 2L * size(p, o))
+                        throw new IOException(path + " holds " + channel.size() + " bytes, not " + 2L * size(p, o));
+                    tablebase.classes[p][o] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asShortBuffer();
+                }
+            }
+        }
+        return tablebase;
+    }
+
+    // the stored value for player to move, or NOT_FOUND if its class was not generated
+    public int probe(int player, int opponent) {
+        probe_count++;
+        int p = Bitboard.count(player);
+        int o = Bitboard.count(opponent);
+        if (p < 3 || o < 3 || p > MAX_PIECES || o > MAX_PIECES || classes[p][o] == null)
+            return NOT_FOUND;
+        found_count++;
+        int value = classes[p][o].get(index(player, opponent, o));
+        if (value != 0)
+            decided_count++;
+        return value;
+    }
+
+    public static boolean isWin(int value) {
+        return value > 0;
+    }
+
+    public static boolean isLoss(int value) {
+        return value < 0;
+    }
+
+    public static int distance(int value) {
+        return value > 0 ? value : -value - 1;
+    }
+
+    public long getProbes() {
+        return probe_count;
+    }
+
+    public long getFound() {
+        return found_count;
+    }
+
+    public long getDecided() {
+        return decided_count;
+    }
+
+    static String fileName(int player_pieces, int opponent_pieces) {
+        return player_pieces + "v" + opponent_pieces + ".tb";
+    }
+
+    static int size(int player_pieces, int opponent_pieces) {
+        return BINOMIAL[Bitboard.POINTS][player_pieces] * BINOMIAL[Bitboard.POINTS - player_pieces][opponent_pieces];
+    }
+
+    static int index(int player, int opponent, int opponent_pieces) {
+        int free = Bitboard.ALL & ~player;
+        return rank(player) * BINOMIAL[Bitboard.POINTS - Bitboard.count(player)][opponent_pieces]
+                + rank(compress(opponent, free));
+    }
+
+    // combinatorial number system: the subset's place among all subsets of its size in colex order
+    private static int rank(int bits) {
+        int rank = 0;
+        int i = 1;
+        for (int rest = bits; rest != 0; rest &= rest - 1)
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(rest)][i++];
+        return rank;
+    }
+
+    // the bits of mask, numbered from 0 in order, that bits has set
+    private static int compress(int bits, int mask) {
+        int compressed = 0;
+        int i = 0;
+        for (int rest = mask; rest != 0; rest &= rest - 1, i++) {
+            if ((bits & rest & -rest) != 0)
+                compressed |= 1 << i;
+        }
+        return compressed;
+    }
+
+    private static int expand(int compressed, int mask) {
+        int bits = 0;
+        int i = 0;
+        for (int rest = mask; rest != 0; rest &= rest - 1, i++) {
+            if ((compressed & 1 << i) != 0)
+                bits |= rest & -rest;
+        }
+        return bits;
+    }
+
+    // the k-subsets of n points in colex order, which is the order rank counts in
+    private static int[] subsets(int n, int k) {
+        int[] subsets = new int[BINOMIAL[n][k]];
+        int subset = (1 << k) - 1;
+        for (int i = 0; i < subsets.length; i++) {
+            subsets[i] = subset;
+            // Gosper's hack: the next larger integer with the same number of bits
+            int lowest = subset & -subset;
+            int ripple = subset + lowest;
+            subset = ripple | ((subset ^ ripple) >>> 2) / lowest;
+        }
+        return subsets;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int pieces = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        generate(args[0], pieces);
+    }
+
+    // solves every class with 3 to pieces on each side, smallest material first, since a capture
+    // only ever leads to a class with one piece fewer
+    public static void generate(String directory, int pieces) throws IOException {
+        if (pieces < 3 || pieces > MAX_PIECES)
+            throw new IllegalArgumentException("pieces per side must be between 3 and " + MAX_PIECES);
+        Files.createDirectories(Paths.get(directory));
+        short[][][] solved = new short[MAX_PIECES + 1][MAX_PIECES + 1][];
+        for (int total = 6; total <= 2 * pieces; total++) {
+            for (int p = 3; p <= pieces; p++) {
+                int o = total - p;
+                if (o < p || o > pieces)
+                    continue;
+                long start = System.nanoTime();
+                int passes = new Generator(solved, p, o).solve();
+                for (int[] material : p == o ? new int[][] {{p, o}} : new int[][] {{p, o}, {o, p}}) {
+                    write(Paths.get(directory, fileName(material[0], material[1])), solved[material[0]][material[1]]);
+                    System.out.printf("%s  %9d positions  %s%n", fileName(material[0], material[1]),
+                            solved[material[0]][material[1]].length, summary(solved[material[0]][material[1]]));
+                }
+                System.out.printf("    %d passes, %.1f s%n", passes, (System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+
+    private static void write(Path path, short[] values) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * values.length).asShortBuffer().put(values);
+        }
+    }
+
+    private static String summary(short[] values) {
+        long wins = 0, losses = 0;
+        int longest = 0;
+        for (short value : values) {
+            if (isWin(value))
+                wins++;
+            else if (isLoss(value))
+                losses++;
+            longest = Math.max(longest, distance(value));
+        }
+        return String.format("%9d wins  %9d losses  %9d draws  longest %d plies", wins, losses, values.length - wins - losses, longest);
+    }
+
+    // retrograde analysis by passes: pass n finds the losses in n plies when n is even, the positions
+    // whose every move leads to an opponent's win already found, and the wins in n plies when n is odd,
+    // the positions with a move to an opponent's loss in n - 1. Each pass runs over the mover's piece
+    // sets in parallel; a value written during a pass has distance n, so no pass reads its own results.
+    // Whatever is unsolved once the passes stop changing anything is a draw
+    private static class Generator {
+
+        private final short[][][] solved;
+        private final int[][] materials;
+        private final int longest_child;
+
+        Generator(short[][][] solved, int p, int o) {
+            this.solved = solved;
+            this.materials = p == o ? new int[][] {{p, o}} : new int[][] {{p, o}, {o, p}};
+            for (int[] material : materials)
+                solved[material[0]][material[1]] = new short[size(material[0], material[1])];
+            int longest = 0;
+            for (int[] material : materials) {
+                short[] captured = material[1] > 3 ? solved[material[1] - 1][material[0]] : null;
+                if (captured != null) {
+                    for (short value : captured)
+                        longest = Math.max(longest, distance(value));
+                }
+            }
+            longest_child = longest;
+        }
+
+        int solve() {
+            int quiet_passes = 0;
+            int n = 0;
+            while (n <= longest_child + 1 || quiet_passes < 2) {
+                long changed = 0;
+                for (int[] material : materials)
+                    changed += pass(material[0], material[1], n);
+                quiet_passes = changed == 0 ? quiet_passes + 1 : 0;
+                n++;
+            }
+            for (int[] material : materials)
+                fill(material[0], material[1]);
+            return n;
+        }
+
+        private long pass(int p, int o, int n) {
+            short[] values = solved[p][o];
+            short[] quiet = solved[o][p];
+            short[] captured = o > 3 ? solved[o - 1][p] : null;
+            int[] players = subsets(Bitboard.POINTS, p);
+            int[] opponents = subsets(Bitboard.POINTS - p, o);
+            AtomicLong changed = new AtomicLong();
+
+            IntStream.range(0, players.length).parallel().forEach(r -> {
+                int player = players[r];
+                int free = Bitboard.ALL & ~player;
+                int[] moves = new int[Position.MAX_MOVES];
+                long found = 0;
+                for (int s = 0; s < opponents.length; s++) {
+                    int index = r * opponents.length + s;
+                    if (values[index] != 0)
+                        continue;
+                    int opponent = expand(opponents[s], free);
+                    if (Symmetry.RULES.canonical(player, opponent) != 0)
+                        continue;
+                    Position position = new Position(player, opponent);
+                    int value = n % 2 == 0 ? loss(position, p, n, moves, quiet, captured) : win(position, n, moves, quiet, captured);
+                    if (value != 0) {
+                        values[index] = (short) value;
+                        found++;
+                    }
+                }
+                changed.addAndGet(found);
+            });
+            return changed.get();
+        }
+
+        // the player is white in the position; children are looked up with the opponent to move
+        private static int win(Position position, int n, int[] moves, short[] quiet, short[] captured) {
+            int move_count = position.generateMovesGame(true, moves);
+            for (int i = 0; i < move_count; i++) {
+                int child = childValue(position, moves[i], quiet, captured);
+                if (isLoss(child) && distance(child) <= n - 1)
+                    return n;
+            }
+            return 0;
+        }
+
+        private static int loss(Position position, int p, int n, int[] moves, short[] quiet, short[] captured) {
+            int move_count = position.generateMovesGame(true, moves);
+            // with more than three pieces and nowhere to slide, the player has lost already
+            if (move_count == 0)
+                return p > 3 ? -1 : 0;
+            if (n == 0)
+                return 0;
+            for (int i = 0; i < move_count; i++) {
+                int child = childValue(position, moves[i], quiet, captured);
+                if (!isWin(child) || distance(child) > n - 1)
+                    return 0;
+            }
+            return -n - 1;
+        }
+
+        // the value of the position after move for the opponent, who moves next; taking the
+        // opponent down to two pieces is a loss for them on the spot
+        private static int childValue(Position position, int move, short[] quiet, short[] captured) {
+            position.makeMove(move, true);
+            int player = position.getWhite();
+            int opponent = position.getBlack();
+            position.unmakeMove(move, true);
+            if (!Moves.closesMill(move))
+                return lookup(quiet, opponent, player);
+            int opponent_pieces = Bitboard.count(opponent);
+            if (opponent_pieces < 3)
+                return -1;
+            return lookup(captured, opponent, player);
+        }
+
+        // while a class is being solved only its canonical positions hold values
+        private static int lookup(short[] values, int player, int opponent) {
+            int g = Symmetry.RULES.canonical(player, opponent);
+            return values[index(Symmetry.RULES.apply(g, player), Symmetry.RULES.apply(g, opponent), Bitboard.count(opponent))];
+        }
+
+        // copies each canonical position's value to the other images, so that probes need no symmetry
+        private void fill(int p, int o) {
+            short[] values = solved[p][o];
+            int[] players = subsets(Bitboard.POINTS, p);
+            int[] opponents = subsets(Bitboard.POINTS - p, o);
+            IntStream.range(0, players.length).parallel().forEach(r -> {
+                int player = players[r];
+                int free = Bitboard.ALL & ~player;
+                for (int s = 0; s < opponents.length; s++) {
+                    int opponent = expand(opponents[s], free);
+                    if (Symmetry.RULES.canonical(player, opponent) != 0)
+                        values[r * opponents.length + s] = (short) lookup(values, player, opponent);
+                }
+            });
+        }
+    }
+}
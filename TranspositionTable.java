@@ -0,0 +1,84 @@
+// fixed-size, direct-mapped table of search results keyed by Zobrist.key
+// each slot is a packed entry plus the key XORed with that entry:
+//   bits 0-16 best move, 17-23 remaining depth, 24-25 bound, 26-31 search age, 32-63 score
+// threads share it without locks: a slot torn by a concurrent store no longer XORs back to the
+// key it is probed with, so it reads as a miss instead of another position's result
+public class TranspositionTable extends DirectMappedTable {
+
+    // bounds start at 1 so that an empty slot never decodes as a stored result
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    public static final int MAX_DEPTH = 127;
+
+    private static final int BYTES_PER_SLOT = 16;
+    private static final int MOVE_MASK = (1 << 17) - 1;
+    private static final int DEPTH_SHIFT = 17;
+    private static final int BOUND_SHIFT = 24;
+    private static final int AGE_SHIFT = 26;
+    private static final int AGE_MASK = 63;
+
+    private final long[] checks;
+    private final long[] entries;
+    private int age;
+
+    public TranspositionTable(int megabytes) {
+        super("hash", (long) megabytes * 1024 * 1024, BYTES_PER_SLOT);
+        checks = new long[size()];
+        entries = new long[size()];
+    }
+
+    // entries from earlier searches stay usable but give way to anything stored by this one
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(checks, 0);
+        java.util.Arrays.fill(entries, 0);
+    }
+
+    // the packed entry for key, or 0 if the slot holds another position
+    public long probe(long key) {
+        probe_count++;
+        int i = slot(key);
+        long entry = entries[i];
+        if (entry == 0 || (checks[i] ^ entry) != key)
+            return 0;
+        hit_count++;
+        return entry;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move) {
+        int i = slot(key);
+        long entry = entries[i];
+        if (entry != 0 && (checks[i] ^ entry) != key && age(entry) == age && depth(entry) > depth)
+            return;
+        store_count++;
+        entry = (long) score << 32 | (long) age << AGE_SHIFT | (long) bound << BOUND_SHIFT
+                | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT | (move & MOVE_MASK);
+        entries[i] = entry;
+        checks[i] = key ^ entry;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int move(long entry) {
+        return (int) entry & MOVE_MASK;
+    }
+
+    public static int depth(long entry) {
+        return (int) entry >>> DEPTH_SHIFT & MAX_DEPTH;
+    }
+
+    public static int bound(long entry) {
+        return (int) entry >>> BOUND_SHIFT & 3;
+    }
+
+    private static int age(long entry) {
+        return (int) entry >>> AGE_SHIFT & AGE_MASK;
+    }
+}
@@ -0,0 +1,77 @@
+// the twelve command-line programs and the engine configuration each one runs
+public enum Variant {
+    AB_GAME(Algorithm.ALPHA_BETA, Phase.GAME, Evaluator.UPDATED, false),
+    AB_GAME_BLACK(Algorithm.ALPHA_BETA, Phase.GAME, Evaluator.UPDATED, true),
+    AB_OPENING(Algorithm.ALPHA_BETA, Phase.OPENING, Evaluator.IMPROVED, false),
+    AB_OPENING_BLACK(Algorithm.ALPHA_BETA, Phase.OPENING, Evaluator.IMPROVED, true),
+    AB_OPENING_UPDATED(Algorithm.ALPHA_BETA, Phase.OPENING, Evaluator.UPDATED, false),
+    AB_OPENING_BLACK_UPDATED(Algorithm.ALPHA_BETA, Phase.OPENING, Evaluator.UPDATED, true),
+    MINIMAX_GAME(Algorithm.MINIMAX, Phase.GAME, Evaluator.BASIC_GAME, false),
+    MINIMAX_GAME_BLACK(Algorithm.MINIMAX, Phase.GAME, Evaluator.BASIC_GAME, true),
+    MINIMAX_GAME_IMPROVED(Algorithm.MINIMAX, Phase.GAME, Evaluator.UPDATED, false),
+    MINIMAX_OPENING(Algorithm.MINIMAX, Phase.OPENING, Evaluator.BASIC_OPENING, false),
+    MINIMAX_OPENING_BLACK(Algorithm.MINIMAX, Phase.OPENING, Evaluator.BASIC_OPENING, true),
+    MINIMAX_OPENING_IMPROVED(Algorithm.MINIMAX, Phase.OPENING, Evaluator.IMPROVED, false);
+
+    private final Algorithm algorithm;
+    private final Phase phase;
+    private final Evaluator evaluator;
+    private final boolean plays_black;
+
+    Variant(Algorithm algorithm, Phase phase, Evaluator evaluator, boolean plays_black) {
+        this.algorithm = algorithm;
+        this.phase = phase;
+        this.evaluator = evaluator;
+        this.plays_black = plays_black;
+    }
+
+    public Search createSearch() {
+        return algorithm.create(phase, evaluator);
+    }
+
+    public Search createSearch(Options options) {
+        Algorithm chosen = options.getAlgorithm() != null ? options.getAlgorithm() : algorithm;
+        Search search = chosen.create(phase, evaluator);
+        search.configure(options);
+        return search;
+    }
+
+    public Move play(Board board, int depth) {
+        return play(createSearch(), board, depth);
+    }
+
+    // black programs search the colour-swapped board as white and swap the answer back
+    public Move play(Search search, Board board, int depth) {
+        if (!plays_black)
+            return search.search(board, depth);
+        Move best_move = search.search(board.swap(), depth);
+        return new Move(best_move.getBoard().swap(), best_move.getMinimaxEstimate(), best_move.getPositionsEvaluated());
+    }
+
+    // history is the game before board, oldest first, and is swapped along with it for black
+    public Move play(Search search, Board board, Board[] history, int depth) {
+        Board[] searched = history.clone();
+        if (plays_black) {
+            for (int i = 0; i < searched.length; i++)
+                searched[i] = searched[i].swap();
+        }
+        search.setGameHistory(searched);
+        return play(search, board, depth);
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public boolean playsBlack() {
+        return plays_black;
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.concurrent.*;
+
+// Young Brothers Wait: a node deep enough to be worth splitting searches its eldest child on its own,
+// and only once that has set a bound hands the younger brothers to the pool. The brothers share the
+// node's window through a split point, and a cutoff there stops every brother still running beneath it.
+// With one thread no pool exists and the search is exactly alphaBeta, node for node
+public class YoungBrothersSearch extends Search {
+
+    // below this remaining depth a subtree is too small to be worth a task
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    private ForkJoinPool pool;
+    private long split_count;
+
+    public YoungBrothersSearch(Phase phase, Evaluator evaluator) {
+        super(phase, evaluator);
+    }
+
+    public void configure(Options options) {
+        super.configure(options);
+        if (options.getThreads() > 1)
+            pool = new ForkJoinPool(options.getThreads());
+    }
+
+    protected int searchRoot(Position position, int depth) {
+        Worker root = new Worker(move_buffers, best_moves);
+        split_count = 0;
+        int estimate = pool == null
+                ? youngBrothers(root, position, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true, null)
+                : pool.invoke(ForkJoinTask.adapt(() -> youngBrothers(root, position, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true, null)));
+        positions_evaluated_count = root.positions_evaluated_count;
+        split_count = root.split_count;
+        return estimate;
+    }
+
+    // parent is the innermost split point above this node; once it or any split point above it has
+    // cut off, the result no longer matters and 0 is returned
+    private int youngBrothers(Worker worker, Position position, int depth, int alpha, int beta, boolean is_max_player, SplitPoint parent) {
+        worker.positions_evaluated_count++;
+        if (parent != null && parent.isAborted())
+            return 0;
+        if (terminal_detection) {
+            int ply = root_depth - depth;
+            int terminal = terminalScore(position, is_max_player, ply);
+            if (terminal != 0)
+                return terminal;
+            int quickest_win = WIN - ply;
+            if (quickest_win <= alpha)
+                return quickest_win;
+            if (-quickest_win >= beta)
+                return -quickest_win;
+        }
+        if (depth == 0) {
+            return evaluate(position);
+        }
+
+        int[] possible_moves = worker.move_buffers[depth];
+        int move_count = phase.generateMoves(position, is_max_player, possible_moves);
+        if (depth == root_depth)
+            move_count = removeSymmetricMoves(position, is_max_player, possible_moves, move_count);
+        int best_estimate_value = is_max_player ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int best_move = 0;
+
+        for (int i = 0; i < move_count; i++) {
+            if (i == 1 && pool != null && depth >= MIN_SPLIT_DEPTH) {
+                SplitPoint split = new SplitPoint(parent, is_max_player, alpha, beta, best_estimate_value, best_move);
+                searchBrothers(worker, position, depth, possible_moves, move_count, split);
+                if (parent != null && parent.isAborted())
+                    return 0;
+                best_estimate_value = split.best_estimate_value;
+                best_move = split.best_move;
+                break;
+            }
+
+            int move = possible_moves[i];
+            position.makeMove(move, is_max_player);
+            int estimate = youngBrothers(worker, position, depth - 1, alpha, beta, !is_max_player, parent);
+            position.unmakeMove(move, is_max_player);
+            if (parent != null && parent.isAborted())
+                return 0;
+
+            if (is_max_player) {
+                if (estimate > best_estimate_value) {
+                    best_estimate_value = estimate;
+                    best_move = move;
+                }
+                alpha = Math.max(alpha, best_estimate_value);
+            } else {
+                if (estimate < best_estimate_value) {
+                    best_estimate_value = estimate;
+                    best_move = move;
+                }
+                beta = Math.min(beta, best_estimate_value);
+            }
+
+            if (beta <= alpha) {
+                break; 
+            }
+        }
+
+        worker.best_moves[depth] = best_move;
+        return best_estimate_value;
+    }
+
+    // each task keeps its move, because the worker's buffer for this depth is reused by whatever it
+    // steals while waiting for the brothers, and copies the parent's position only once it starts.
+    // The parent's position does not change meanwhile: its worker is blocked here, and anything it
+    // steals searches a position of its own
+    private void searchBrothers(Worker worker, Position position, int depth, int[] possible_moves, int move_count, SplitPoint split) {
+        BrotherTask[] brothers = new BrotherTask[move_count - 1];
+        for (int i = 1; i < move_count; i++)
+            brothers[i - 1] = new BrotherTask(split, possible_moves[i], position, depth - 1);
+        ForkJoinTask.invokeAll(brothers);
+        worker.split_count++;
+        for (BrotherTask brother : brothers) {
+            if (brother.worker != null) {
+                worker.positions_evaluated_count += brother.worker.positions_evaluated_count;
+                worker.split_count += brother.worker.split_count;
+            }
+        }
+    }
+
+    public void report(java.io.PrintStream out) {
+        super.report(out);
+        if (pool != null)
+            out.println("Young brothers wait: " + pool.getParallelism() + " threads, " + split_count + " split points");
+    }
+
+    public long getSplitPoints() {
+        return split_count;
+    }
+
+    // the buffers and counters one task searches with
+    private static class Worker {
+        final int[][] move_buffers;
+        final int[] best_moves;
+        int positions_evaluated_count;
+        long split_count;
+
+        Worker(int[][] move_buffers, int[] best_moves) {
+            this.move_buffers = move_buffers;
+            this.best_moves = best_moves;
+        }
+
+        Worker(int depth) {
+            this(new int[depth + 1][Position.MAX_MOVES], new int[depth + 1]);
+        }
+    }
+
+    private static class SplitPoint {
+        final SplitPoint parent;
+        final boolean is_max_player;
+        int alpha;
+        int beta;
+        int best_estimate_value;
+        int best_move;
+        volatile boolean cutoff;
+
+        SplitPoint(SplitPoint parent, boolean is_max_player, int alpha, int beta, int best_estimate_value, int best_move) {
+            this.parent = parent;
+            this.is_max_player = is_max_player;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.best_estimate_value = best_estimate_value;
+            this.best_move = best_move;
+        }
+
+        boolean isAborted() {
+            for (SplitPoint split = this; split != null; split = split.parent) {
+                if (split.cutoff)
+                    return true;
+            }
+            return false;
+        }
+
+        synchronized long window() {
+            return (long) alpha << 32 | beta & 0xFFFFFFFFL;
+        }
+
+        synchronized void update(int move, int estimate) {
+            if (cutoff)
+                return;
+            if (is_max_player) {
+                if (estimate > best_estimate_value) {
+                    best_estimate_value = estimate;
+                    best_move = move;
+                }
+                alpha = Math.max(alpha, best_estimate_value);
+            } else {
+                if (estimate < best_estimate_value) {
+                    best_estimate_value = estimate;
+                    best_move = move;
+                }
+                beta = Math.min(beta, best_estimate_value);
+            }
+            if (beta <= alpha)
+                cutoff = true;
+        }
+    }
+
+    // one younger brother, searched with the split point's window as it stands when the task starts
+    private class BrotherTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SplitPoint split;
+        private final int move;
+        private final Position parent_position;
+        private final int depth;
+        private Worker worker;
+
+        BrotherTask(SplitPoint split, int move, Position parent_position, int depth) {
+            this.split = split;
+            this.move = move;
+            this.parent_position = parent_position;
+            this.depth = depth;
+        }
+
+        // a brother that never starts because of a cutoff costs no position copy, no buffers and
+        // counts no positions
+        protected void compute() {
+            if (split.isAborted())
+                return;
+            Position position = parent_position.copy();
+            position.makeMove(move, split.is_max_player);
+            worker = new Worker(depth);
+            long window = split.window();
+            int estimate = youngBrothers(worker, position, depth, (int) (window >> 32), (int) window, !split.is_max_player, split);
+            if (!split.isAborted())
+                split.update(move, estimate);
+        }
+    }
+}
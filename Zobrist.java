@@ -0,0 +1,37 @@
+import java.util.*;
+
+public class Zobrist {
+
+    // a fixed seed keeps hashes, and so table behaviour, identical from run to run
+    private static final long SEED = 0x4E696E654D656EL;
+
+    private static final long[] WHITE = new long[Bitboard.POINTS];
+    private static final long[] BLACK = new long[Bitboard.POINTS];
+    public static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < Bitboard.POINTS; i++) {
+            WHITE[i] = random.nextLong();
+            BLACK[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    public static long hash(int white, int black) {
+        return flip(white, true) ^ flip(black, false);
+    }
+
+    // the change in hash when the given points of one colour toggle
+    public static long flip(int points, boolean is_white) {
+        long[] keys = is_white ? WHITE : BLACK;
+        long hash = 0;
+        for (int rest = points; rest != 0; rest &= rest - 1)
+            hash ^= keys[Integer.numberOfTrailingZeros(rest)];
+        return hash;
+    }
+
+    public static long key(long hash, boolean is_white_player) {
+        return is_white_player ? hash : hash ^ BLACK_TO_MOVE;
+    }
+}
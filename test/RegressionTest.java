@@ -0,0 +1,40 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// every program, at every depth up to the one it is run at, on the fixed boards of regression.txt must
+// still give the answer the separate programs gave before the shared engine: the same output board,
+// the same count of positions evaluated and the same estimate
+public class RegressionTest {
+
+    static Stream<String> cases() throws IOException {
+        InputStream in = RegressionTest.class.getResourceAsStream("/regression.txt");
+        if (in == null)
+            throw new FileNotFoundException("regression.txt");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> lines = new ArrayList<>();
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (!line.isEmpty() && !line.startsWith("#"))
+                    lines.add(line);
+            }
+            return lines.stream();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("cases")
+    void matchesBaseline(String line) {
+        String[] fields = line.split(" ");
+        Variant variant = Variant.valueOf(fields[0]);
+        Move best_move = variant.play(new Board(fields[1]), Integer.parseInt(fields[2]));
+        assertEquals(fields[3], best_move.getBoard().convertToString(), "board");
+        assertEquals(Integer.parseInt(fields[4]), best_move.getPositionsEvaluated(), "positions evaluated");
+        assertEquals(Integer.parseInt(fields[5]), best_move.getMinimaxEstimate(), "estimate");
+    }
+}